@@ -0,0 +1,60 @@
+package com.justlife.cleaning.cleaning_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
+import com.justlife.cleaning.cleaning_service.region.RegionScoped;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+// Computed availability answers keyed by request. An entry is only served while its tag still matches
+// the date's schedule version, the roster generation and the working calendar generation, all of which
+// move after commit, so there is nothing to invalidate on write. The region and the epoch keep tags from
+// one region or process from matching another's.
+@Component
+@RegionScoped
+public class AvailabilityResultCache {
+
+    private final ScheduleIndex scheduleIndex;
+    private final ReferenceDataCache referenceData;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Cache<Object, Versioned<?>> results;
+
+    public AvailabilityResultCache(ScheduleIndex scheduleIndex,
+                                   ReferenceDataCache referenceData,
+                                   @Value("${availability.cache.max-entries:10000}") long maxEntries) {
+        this.scheduleIndex = scheduleIndex;
+        this.referenceData = referenceData;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    public String etag(LocalDate date) {
+        return RegionContext.current() + "-" + epoch + "-" + referenceData.generation()
+                + "-" + scheduleIndex.calendarGeneration() + "-" + scheduleIndex.version(date);
+    }
+
+    // The tag is read before computing, so a write racing the computation only makes the entry miss later
+    @SuppressWarnings("unchecked")
+    public <T> Versioned<T> get(Object key, LocalDate date, Supplier<T> compute) {
+        String etag = etag(date);
+        Versioned<?> cached = results.getIfPresent(key);
+        if (cached != null && cached.etag().equals(etag)) {
+            return (Versioned<T>) cached;
+        }
+        Versioned<T> fresh = new Versioned<>(etag, compute.get());
+        results.put(key, fresh);
+        return fresh;
+    }
+
+    public CacheStats stats() {
+        return results.stats();
+    }
+}
@@ -0,0 +1,108 @@
+package com.justlife.cleaning.cleaning_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.region.RegionScoped;
+import com.justlife.cleaning.cleaning_service.replica.ReadRouting;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-through cache of the cleaner roster. Cleaners and vans change rarely and are small, so they are
+// held as one snapshot (loaded with a single fetch join) that expires after a TTL or on any write to
+// either entity (see ReferenceDataInvalidator). Cached entities are detached: read them, don't persist them.
+@Component
+@RegionScoped
+public class ReferenceDataCache {
+
+    private static final String ROSTER = "roster";
+
+    private final CleanerRepository cleanerRepository;
+    private final LoadingCache<String, Roster> roster;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ReferenceDataCache(CleanerRepository cleanerRepository,
+                              @Value("${reference-data.cache.ttl:10m}") Duration ttl) {
+        this.cleanerRepository = cleanerRepository;
+        this.roster = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(key -> ReadRouting.onPrimary(this::load));
+    }
+
+    public List<Cleaner> allCleaners() {
+        return roster.get(ROSTER).cleaners();
+    }
+
+    // null when the cleaner does not exist
+    public Long vehicleIdOf(Long cleanerId) {
+        return roster.get(ROSTER).vehicleByCleaner().get(cleanerId);
+    }
+
+    // vehicleId -> ids of the cleaners riding in it, ascending
+    public Map<Long, List<Long>> cleanersByVehicle() {
+        return roster.get(ROSTER).cleanersByVehicle();
+    }
+
+    // The roster split by vehicle, vehicles in id order; no team crosses a partition
+    public List<List<Cleaner>> cleanersPerVehicle() {
+        return roster.get(ROSTER).cleanersPerVehicle();
+    }
+
+    // null when no cleaner rides in the van
+    public Vehicle vehicle(Long vehicleId) {
+        return roster.get(ROSTER).vehicles().get(vehicleId);
+    }
+
+    // Bumped on every invalidation, after the roster is dropped, and by every load. Reading it reloads an expired
+    // roster first, so a change picked up after the TTL (made through another instance) moves it too.
+    public long generation() {
+        roster.get(ROSTER);
+        return generation.get();
+    }
+
+    public void invalidate() {
+        roster.invalidateAll();
+        generation.incrementAndGet();
+    }
+
+    public CacheStats stats() {
+        return roster.stats();
+    }
+
+    private Roster load() {
+        generation.incrementAndGet();
+        List<Cleaner> cleaners = cleanerRepository.findAllWithVehicle();
+        Map<Long, Long> vehicleByCleaner = new HashMap<>();
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        Map<Long, List<Long>> cleanersByVehicle = new HashMap<>();
+        Map<Long, List<Cleaner>> partitions = new TreeMap<>();
+        for (Cleaner cleaner : cleaners) {
+            Vehicle vehicle = cleaner.getVehicle();
+            if (vehicle != null) {
+                vehicleByCleaner.put(cleaner.getId(), vehicle.getId());
+                vehicles.putIfAbsent(vehicle.getId(), vehicle);
+                cleanersByVehicle.computeIfAbsent(vehicle.getId(), k -> new ArrayList<>()).add(cleaner.getId());
+                partitions.computeIfAbsent(vehicle.getId(), k -> new ArrayList<>()).add(cleaner);
+            }
+        }
+        cleanersByVehicle.replaceAll((vehicleId, ids) -> ids.stream().sorted().toList());
+        return new Roster(List.copyOf(cleaners), Map.copyOf(vehicleByCleaner), Map.copyOf(vehicles),
+                Map.copyOf(cleanersByVehicle), partitions.values().stream().map(List::copyOf).toList());
+    }
+
+    private record Roster(List<Cleaner> cleaners, Map<Long, Long> vehicleByCleaner, Map<Long, Vehicle> vehicles,
+                          Map<Long, List<Long>> cleanersByVehicle, List<List<Cleaner>> cleanersPerVehicle) {}
+}
@@ -0,0 +1,34 @@
+package com.justlife.cleaning.cleaning_service.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// JPA listener on Cleaner and Vehicle. Drops the roster at flush and again after commit, so a reload that
+// raced the writing transaction cannot keep the old rows until the TTL runs out.
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataInvalidator {
+
+    private final ObjectProvider<ReferenceDataCache> cache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onWrite(Object entity) {
+        cache.ifAvailable(ReferenceDataCache::invalidate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.ifAvailable(ReferenceDataCache::invalidate);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.justlife.cleaning.cleaning_service.cache;
+
+// A computed result and the ETag of the data it was computed from
+public record Versioned<T>(String etag, T value) {}
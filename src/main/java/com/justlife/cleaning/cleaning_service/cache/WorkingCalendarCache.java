@@ -0,0 +1,60 @@
+package com.justlife.cleaning.cleaning_service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.justlife.cleaning.cleaning_service.region.RegionScoped;
+import com.justlife.cleaning.cleaning_service.replica.ReadRouting;
+import com.justlife.cleaning.cleaning_service.repository.CleanerAbsenceRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerShiftRepository;
+import com.justlife.cleaning.cleaning_service.schedule.WorkingCalendar;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+// Read-through cache of every cleaner's shifts and absences, compiled into one WorkingCalendar. Loaded up
+// front so no availability query pays for it, reloaded after a TTL (picking up uploads made through other
+// instances) and dropped on every roster upload. A reload that changed nothing hands back the same
+// instance, so ScheduleIndex keeps the days it built from it.
+@Component
+@RegionScoped
+public class WorkingCalendarCache {
+
+    private static final String CALENDAR = "calendar";
+
+    private final CleanerShiftRepository shiftRepository;
+    private final CleanerAbsenceRepository absenceRepository;
+    private final LoadingCache<String, WorkingCalendar> calendar;
+    private volatile WorkingCalendar last = WorkingCalendar.EMPTY;
+
+    public WorkingCalendarCache(CleanerShiftRepository shiftRepository,
+                                CleanerAbsenceRepository absenceRepository,
+                                @Value("${working-calendar.cache.ttl:10m}") Duration ttl) {
+        this.shiftRepository = shiftRepository;
+        this.absenceRepository = absenceRepository;
+        this.calendar = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .build(key -> ReadRouting.onPrimary(this::load));
+        this.calendar.get(CALENDAR);
+    }
+
+    public WorkingCalendar current() {
+        return calendar.get(CALENDAR);
+    }
+
+    public void invalidate() {
+        calendar.invalidateAll();
+    }
+
+    private WorkingCalendar load() {
+        WorkingCalendar loaded = WorkingCalendar.of(shiftRepository.findAll(),
+                absenceRepository.findEndingAfter(LocalDate.now().atStartOfDay()));
+        if (loaded.equals(last)) {
+            return last;
+        }
+        last = loaded;
+        return loaded;
+    }
+}
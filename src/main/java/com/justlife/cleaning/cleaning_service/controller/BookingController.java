@@ -1,18 +1,34 @@
 package com.justlife.cleaning.cleaning_service.controller;
 
-import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.cleaning.cleaning_service.cache.Versioned;
+import com.justlife.cleaning.cleaning_service.outbox.BookingChangeFeed;
 import com.justlife.cleaning.cleaning_service.service.AvailabilityService;
+import com.justlife.cleaning.cleaning_service.service.BookingExportService;
 import com.justlife.cleaning.cleaning_service.service.BookingService;
 import com.justlife.cleaning.cleaning_service.dto.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -21,40 +37,93 @@ public class BookingController {
 
     private final BookingService bookingService;
 
+    private final BookingExportService bookingExportService;
+
     private final AvailabilityService availabilityService;
 
-    // Daily availability (date & duration)
+    private final BookingChangeFeed changeFeed;
+
+    private final ObjectMapper objectMapper;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final String CSV_HEADER = "id,startTime,endTime,durationH,customer,vehicleId,cleanerIds\n";
+    private static final long MAX_RANGE_DAYS = 92;
+    private static final int MAX_DURATION_HOURS = 14;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_CHANGES = 1000;
+    private static final int MAX_WAIT_SECONDS = 60;
+
+    // Daily availability (date & duration); 304 while no booking on the date has changed
     @GetMapping("/availability")
-    public List<AvailabilitySlot> getDailyAvailability(
+    public ResponseEntity<List<AvailabilitySlot>> getDailyAvailability(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam Integer durationHours,
+            WebRequest request) {
+
+        if (request.checkNotModified(availabilityService.availabilityTag(date))) {
+            return null;
+        }
+        Versioned<List<AvailabilitySlot>> slots = availabilityService.getDailyAvailability(date, durationHours);
+        return ResponseEntity.ok().eTag(slots.etag()).body(slots.value());
+    }
+
+    // Multi-day availability, streamed as one JSON line per day
+    @GetMapping("/availability/range")
+    public ResponseEntity<StreamingResponseBody> getRangeAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam Integer durationHours) {
 
-        Map<Long, List<LocalTime>> transformed = availabilityService
-                .getAvailableSlots(date, durationHours)
-                .entrySet()
-                .stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        e -> e.getKey().getId(),
-                        Map.Entry::getValue
-                ));
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must be 1-" + MAX_RANGE_DAYS + " days with from <= to");
+        }
 
-        return transformed.entrySet().stream()
-                .map(e -> new AvailabilitySlot(e.getKey(), e.getValue()))
-                .toList();
+        StreamingResponseBody body = out -> availabilityService.streamAvailableSlots(from, to, durationHours, day -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(day));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     // Slot-specific availability (date + time + duration)
     @GetMapping("/availability/slot")
-    public List<Long> getAvailableCleanersForSlot(
+    public ResponseEntity<List<Long>> getAvailableCleanersForSlot(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
-            @RequestParam Integer durationHours) {
+            @RequestParam Integer durationHours,
+            WebRequest request) {
 
-        return availabilityService
-                .getAvailableCleanersForSlot(date, startTime, durationHours)
-                .stream()
-                .map(Cleaner::getId)
-                .toList();
+        if (request.checkNotModified(availabilityService.availabilityTag(date))) {
+            return null;
+        }
+        Versioned<List<Long>> cleanerIds = availabilityService.getCleanerIdsForSlot(date, startTime, durationHours);
+        return ResponseEntity.ok().eTag(cleanerIds.etag()).body(cleanerIds.value());
+    }
+
+    // Start times per van at which teamSize of its cleaners are free together
+    @GetMapping("/availability/teams")
+    public ResponseEntity<List<TeamAvailability>> getTeamAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam Integer durationHours,
+            @RequestParam Integer teamSize,
+            WebRequest request) {
+
+        if (teamSize < 1 || teamSize > 3 || durationHours < 1 || durationHours > MAX_DURATION_HOURS) {
+            throw new IllegalArgumentException("Team size must be 1-3 and duration 1-" + MAX_DURATION_HOURS + " hours");
+        }
+        if (request.checkNotModified(availabilityService.availabilityTag(date))) {
+            return null;
+        }
+        Versioned<List<TeamAvailability>> teams =
+                availabilityService.getTeamAvailability(date, durationHours, teamSize);
+        return ResponseEntity.ok().eTag(teams.etag()).body(teams.value());
     }
 
     // Booking Endpoints
@@ -65,6 +134,109 @@ public class BookingController {
         return bookingService.create(req);
     }
 
+    // The server picks a same-vehicle team and books it in one step
+    @PostMapping("/bookings/auto")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingResponse createAutoBooking(@RequestBody BookingAutoRequest req) {
+        return bookingService.createAuto(req);
+    }
+
+    // Many bookings in one transaction; rejected items are reported per item, not as an error
+    @PostMapping("/bookings/batch")
+    public BookingBatchResponse createBookings(@RequestBody BookingBatchRequest req) {
+        return bookingService.createBatch(req.bookings());
+    }
+
+    // Weekly or biweekly booking checked over its whole horizon; near occurrences are written as bookings now,
+    // later ones as they come within the rolling window
+    @PostMapping("/bookings/series")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookingSeriesResponse createBookingSeries(@RequestBody BookingSeriesRequest req) {
+        return bookingService.createSeries(req);
+    }
+
+    // Keyset-paginated listing; pass the previous page's nextCursor to continue
+    @GetMapping("/bookings")
+    public BookingPage listBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long cleanerId,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        if (to.isBefore(from) || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Need from <= to and a limit of 1-" + MAX_PAGE_SIZE);
+        }
+        return bookingService.search(new BookingSearch(from, to, cleanerId, vehicleId, customer, cursor, limit));
+    }
+
+    // Bookings starting in [from, to] as CSV or NDJSON, written row by row as the cursor advances
+    @GetMapping("/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        boolean csv = "csv".equals(format);
+        if (to.isBefore(from) || !(csv || "ndjson".equals(format))) {
+            throw new IllegalArgumentException("Need from <= to and a format of csv or ndjson");
+        }
+
+        StreamingResponseBody body = out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            if (csv) {
+                buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            bookingExportService.export(from, to, booking -> {
+                try {
+                    if (csv) {
+                        buffered.write(csvLine(booking).getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        buffered.write(objectMapper.writeValueAsBytes(booking));
+                        buffered.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("bookings-" + from + "-" + to + "." + format).build().toString())
+                .body(body);
+    }
+
+    // Change feed: booking events after sinceSeq in commit order, waiting up to waitSeconds when there are none yet;
+    // the next poll passes the response's lastSeq
+    @GetMapping("/bookings/changes")
+    public DeferredResult<BookingChanges> bookingChanges(
+            @RequestParam(defaultValue = "0") long sinceSeq,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "30") int waitSeconds) {
+
+        if (sinceSeq < 0 || limit < 1 || limit > MAX_CHANGES || waitSeconds < 0 || waitSeconds > MAX_WAIT_SECONDS) {
+            throw new IllegalArgumentException(
+                    "Need sinceSeq >= 0, a limit of 1-" + MAX_CHANGES + " and a wait of 0-" + MAX_WAIT_SECONDS + "s");
+        }
+        return changeFeed.poll(sinceSeq, limit, Duration.ofSeconds(waitSeconds));
+    }
+
+    // RFC 4180: the customer is quoted when it holds a comma, quote or line break; cleaner ids are space-separated
+    private static String csvLine(BookingResponse b) {
+        String customer = b.customer() == null ? "" : b.customer();
+        if (customer.matches("(?s).*[,\"\r\n].*")) {
+            customer = "\"" + customer.replace("\"", "\"\"") + "\"";
+        }
+        return b.id() + "," + b.startTime() + "," + b.endTime() + "," + b.durationH() + "," + customer + ","
+                + b.vehicleId() + "," + b.cleanerIds().stream().map(String::valueOf).collect(Collectors.joining(" "))
+                + "\n";
+    }
+
     @PatchMapping("/bookings/{id}")
     public BookingResponse updateBooking(@PathVariable Long id,
                                          @RequestBody BookingUpdateRequest req) {
@@ -76,6 +248,12 @@ public class BookingController {
         return bookingService.get(id);
     }
 
+    // Bulk cancel in one statement; ids=1,2,3
+    @DeleteMapping("/bookings")
+    public BookingCancelResponse cancelBookings(@RequestParam List<Long> ids) {
+        return new BookingCancelResponse(bookingService.cancel(ids));
+    }
+
     @DeleteMapping("/bookings/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteBooking(@PathVariable Long id) {
@@ -0,0 +1,41 @@
+package com.justlife.cleaning.cleaning_service.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.dto.CacheStatsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final AvailabilityResultCache availabilityResultCache;
+
+    @GetMapping("/reference-data")
+    public CacheStatsResponse getReferenceDataStats() {
+        return toDto(referenceDataCache.stats());
+    }
+
+    @GetMapping("/availability")
+    public CacheStatsResponse getAvailabilityStats() {
+        return toDto(availabilityResultCache.stats());
+    }
+
+    private CacheStatsResponse toDto(CacheStats stats) {
+        return new CacheStatsResponse(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.loadCount(),
+                stats.evictionCount()
+        );
+    }
+
+}
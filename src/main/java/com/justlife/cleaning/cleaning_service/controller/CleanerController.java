@@ -1,9 +1,14 @@
 package com.justlife.cleaning.cleaning_service.controller;
 
 import com.justlife.cleaning.cleaning_service.dto.CleanerResponse;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadRequest;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadResponse;
 import com.justlife.cleaning.cleaning_service.service.CleanerService;
+import com.justlife.cleaning.cleaning_service.service.RosterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,6 +23,8 @@ public class CleanerController {
 
     private final CleanerService cleanerService;
 
+    private final RosterService rosterService;
+
     @GetMapping("/available")
     public List<CleanerResponse> getAvailableCleaners(
             @RequestParam LocalDateTime startTime,
@@ -26,4 +33,10 @@ public class CleanerController {
         return cleanerService.findAvailableCleaners(startTime, endTime);
     }
 
+    // Bulk roster: replaces the shifts and absences of every listed cleaner in one transaction
+    @PutMapping("/roster")
+    public RosterUploadResponse uploadRoster(@RequestBody RosterUploadRequest req) {
+        return rosterService.upload(req);
+    }
+
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.justlife.cleaning.cleaning_service.domain;
 
+import com.justlife.cleaning.cleaning_service.region.RegionAssigner;
+import com.justlife.cleaning.cleaning_service.region.Regional;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,14 +11,17 @@ import java.util.List;
 
 @Entity
 @Table(name = "booking")
+@EntityListeners(RegionAssigner.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Booking {
+public class Booking implements Regional {
 
+    // Sequence ids keep inserts batchable; the allocation size matches the sequence increment (V3)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_id_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime startTime;
@@ -27,10 +32,27 @@ public class Booking {
 
     private String customer;
 
-    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    // Region the booking was made in, stamped on insert; bookings never move between regions (V9)
+    @Column(nullable = false, length = 32, updatable = false)
+    private String region;
+
+    // Every schedule, listing and overlap query reads ACTIVE rows only, through partial indexes (V6)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private BookingStatus status = BookingStatus.ACTIVE;
+
+    private LocalDateTime cancelledAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = false)
     private Vehicle vehicle;
 
+    // Set on occurrences materialized from a recurring series
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "series_id")
+    private BookingSeries series;
+
     @ManyToMany
     @JoinTable(
             name = "booking_cleaner",
@@ -0,0 +1,42 @@
+package com.justlife.cleaning.cleaning_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Outbox row written in the same transaction as the booking change it describes (V5)
+@Entity
+@Table(name = "booking_event")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingEvent {
+
+    public enum Type { CREATED, UPDATED, CANCELLED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_event_seq")
+    @SequenceGenerator(name = "booking_event_seq", sequenceName = "booking_event_id_seq", allocationSize = 50)
+    private Long id;
+
+    // Position in the change feed, handed out by the relay in commit order; null until then
+    @Column(unique = true)
+    private Long feedSeq;
+
+    @Column(nullable = false)
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    // The booking as JSON after the change; only the id for CANCELLED
+    @Column(nullable = false, length = 2000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,60 @@
+package com.justlife.cleaning.cleaning_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// A recurring booking (see Recurrence). Occurrences up to materializedThrough are booking rows pointing back
+// here; later ones exist only virtually until the rolling window reaches them (V7).
+@Entity
+@Table(name = "booking_series")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String customer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id", nullable = false)
+    private Vehicle vehicle;
+
+    @ManyToMany
+    @JoinTable(
+            name = "booking_series_cleaner",
+            joinColumns = @JoinColumn(name = "series_id"),
+            inverseJoinColumns = @JoinColumn(name = "cleaner_id")
+    )
+    @Builder.Default
+    private List<Cleaner> cleaners = new ArrayList<>();
+
+    @Column(nullable = false)
+    private LocalDate firstDate;
+
+    @Column(nullable = false)
+    private LocalDate untilDate;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private Integer durationH;
+
+    @Column(nullable = false)
+    private Integer intervalWeeks;
+
+    @Column(nullable = false)
+    private Integer daysMask;
+
+    @Column(nullable = false)
+    private LocalDate materializedThrough;
+}
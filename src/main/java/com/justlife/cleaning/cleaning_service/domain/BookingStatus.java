@@ -0,0 +1,7 @@
+package com.justlife.cleaning.cleaning_service.domain;
+
+// Cancelling is a status transition: the row stays as a tombstone and stops counting for availability
+public enum BookingStatus {
+    ACTIVE,
+    CANCELLED
+}
@@ -1,15 +1,19 @@
 package com.justlife.cleaning.cleaning_service.domain;
 
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.region.RegionAssigner;
+import com.justlife.cleaning.cleaning_service.region.Regional;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
 @Table(name = "cleaner")
+@EntityListeners({ReferenceDataInvalidator.class, RegionAssigner.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Cleaner {
+public class Cleaner implements Regional {
 
     @Id
     private Long id;
@@ -17,6 +21,9 @@ public class Cleaner {
     @Column(nullable = false, length = 50)
     private String name;
 
+    @Column(nullable = false, length = 32, updatable = false)
+    private String region;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vehicle_id", nullable = false)
     private Vehicle vehicle;
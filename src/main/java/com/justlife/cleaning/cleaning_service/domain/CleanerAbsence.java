@@ -0,0 +1,33 @@
+package com.justlife.cleaning.cleaning_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Leave, holiday or any other time a cleaner is off regardless of shifts (V8); may span several days
+@Entity
+@Table(name = "cleaner_absence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CleanerAbsence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cleaner_absence_seq")
+    @SequenceGenerator(name = "cleaner_absence_seq", sequenceName = "cleaner_absence_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long cleanerId;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(length = 100)
+    private String reason;
+}
@@ -0,0 +1,37 @@
+package com.justlife.cleaning.cleaning_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+// One weekly working window of a cleaner (V8). A cleaner with any shifts works only inside them; one with
+// none works whenever the booking rules allow.
+@Entity
+@Table(name = "cleaner_shift")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CleanerShift {
+
+    // Sequence ids keep roster uploads batchable
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cleaner_shift_seq")
+    @SequenceGenerator(name = "cleaner_shift_seq", sequenceName = "cleaner_shift_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long cleanerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 9)
+    private DayOfWeek dayOfWeek;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+}
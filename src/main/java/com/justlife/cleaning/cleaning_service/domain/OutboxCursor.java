@@ -0,0 +1,22 @@
+package com.justlife.cleaning.cleaning_service.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Relay positions in the outbox: the last feed position handed out ("sequencer") and the last one the sink
+// acknowledged ("sink"). Relays on every instance lock the row before moving it.
+@Entity
+@Table(name = "outbox_cursor")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxCursor {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private Long position;
+
+}
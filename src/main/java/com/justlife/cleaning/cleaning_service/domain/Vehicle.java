@@ -1,18 +1,23 @@
 package com.justlife.cleaning.cleaning_service.domain;
 
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.region.RegionAssigner;
+import com.justlife.cleaning.cleaning_service.region.Regional;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.*;
 
 @Entity
 @Table(name = "vehicle")
+@EntityListeners({ReferenceDataInvalidator.class, RegionAssigner.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Vehicle {
+public class Vehicle implements Regional {
 
     @Id
     private Long id;
@@ -20,4 +25,7 @@ public class Vehicle {
     @Column(nullable = false, length = 50)
     private String label;
 
+    @Column(nullable = false, length = 32, updatable = false)
+    private String region;
+
 }
\ No newline at end of file
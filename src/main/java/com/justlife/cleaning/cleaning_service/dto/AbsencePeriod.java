@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.LocalDateTime;
+
+public record AbsencePeriod(
+        LocalDateTime  startTime,
+        LocalDateTime  endTime,
+        String         reason
+) {}
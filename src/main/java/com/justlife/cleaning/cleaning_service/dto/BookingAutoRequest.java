@@ -0,0 +1,12 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record BookingAutoRequest(
+        LocalDate    date,
+        LocalTime    startTime,
+        Integer      durationHours,
+        String       customer,
+        Integer      teamSize
+) {}
@@ -0,0 +1,8 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+// booking is set when the item was created, error when it was rejected
+public record BookingBatchItemResult(
+        int              index,
+        BookingResponse  booking,
+        String           error
+) {}
@@ -0,0 +1,7 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.util.List;
+
+public record BookingBatchRequest(
+        List<BookingCreateRequest> bookings
+) {}
@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.util.List;
+
+public record BookingBatchResponse(
+        int                           accepted,
+        int                           rejected,
+        List<BookingBatchItemResult>  results
+) {}
@@ -0,0 +1,6 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.util.List;
+
+// Ids that this request cancelled; unknown or already cancelled ids are left out
+public record BookingCancelResponse(List<Long> cancelled) {}
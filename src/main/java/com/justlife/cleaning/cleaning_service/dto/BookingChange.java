@@ -0,0 +1,15 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+// One outbox event as consumers see it; seq is its position in its region's change feed
+public record BookingChange(
+        long seq,
+        String region,
+        Long bookingId,
+        String type,
+        @JsonRawValue String payload,
+        LocalDateTime createdAt
+) {}
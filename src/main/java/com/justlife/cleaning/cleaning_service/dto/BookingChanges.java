@@ -0,0 +1,6 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.util.List;
+
+// lastSeq is the sinceSeq for the next poll: the last change returned, or the requested sinceSeq when none
+public record BookingChanges(List<BookingChange> changes, long lastSeq) {}
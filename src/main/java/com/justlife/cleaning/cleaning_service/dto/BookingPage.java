@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record BookingPage(
+        List<BookingResponse> bookings,
+        String                nextCursor
+) {}
@@ -0,0 +1,14 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.LocalDate;
+
+// Listing filters; from/to are inclusive dates, everything else is optional
+public record BookingSearch(
+        LocalDate from,
+        LocalDate to,
+        Long      cleanerId,
+        Long      vehicleId,
+        String    customer,
+        String    cursor,
+        int       limit
+) {}
@@ -0,0 +1,18 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// daysOfWeek defaults to the weekday of firstDate, intervalWeeks to 1 (weekly); 2 is biweekly
+public record BookingSeriesRequest(
+        LocalDate        firstDate,
+        LocalDate        untilDate,
+        LocalTime        startTime,
+        Integer          durationHours,
+        String           customer,
+        List<Long>       cleanerIds,
+        List<DayOfWeek>  daysOfWeek,
+        Integer          intervalWeeks
+) {}
@@ -0,0 +1,13 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// bookings are the occurrences written so far; the rest are booked virtually and written as
+// materializedThrough advances
+public record BookingSeriesResponse(
+        Long                   id,
+        int                    occurrences,
+        LocalDate              materializedThrough,
+        List<BookingResponse>  bookings
+) {}
@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+public record CacheStatsResponse(
+        long hits,
+        long misses,
+        double hitRate,
+        long loads,
+        long evictions
+) {}
@@ -0,0 +1,10 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.util.List;
+
+// No shifts means the cleaner works whenever the booking rules allow
+public record CleanerRoster(
+        Long                 cleanerId,
+        List<ShiftPeriod>    shifts,
+        List<AbsencePeriod>  absences
+) {}
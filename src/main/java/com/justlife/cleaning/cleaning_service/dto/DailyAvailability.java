@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DailyAvailability(
+        LocalDate date,
+        List<AvailabilitySlot> slots
+) {}
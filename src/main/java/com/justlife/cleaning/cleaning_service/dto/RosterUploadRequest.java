@@ -0,0 +1,8 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.util.List;
+
+// Each listed cleaner's shifts and absences are replaced by the ones given; cleaners not listed keep theirs
+public record RosterUploadRequest(
+        List<CleanerRoster>  cleaners
+) {}
@@ -0,0 +1,7 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+public record RosterUploadResponse(
+        int  cleaners,
+        int  shifts,
+        int  absences
+) {}
@@ -0,0 +1,10 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+public record ShiftPeriod(
+        DayOfWeek  dayOfWeek,
+        LocalTime  startTime,
+        LocalTime  endTime
+) {}
@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.dto;
+
+import java.time.LocalTime;
+import java.util.List;
+
+public record TeamAvailability(
+        Long vehicleId,
+        List<LocalTime> startTimes
+) {}
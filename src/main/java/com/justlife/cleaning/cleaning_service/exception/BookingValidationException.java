@@ -2,7 +2,19 @@ package com.justlife.cleaning.cleaning_service.exception;
 
 public class BookingValidationException extends RuntimeException {
 
+    // Fixed name of the rejecting rule, used as a metrics tag; never built from request data
+    private final String rule;
+
     public BookingValidationException(String message) {
+        this("other", message);
+    }
+
+    public BookingValidationException(String rule, String message) {
         super(message);
+        this.rule = rule;
+    }
+
+    public String getRule() {
+        return rule;
     }
-}
\ No newline at end of file
+}
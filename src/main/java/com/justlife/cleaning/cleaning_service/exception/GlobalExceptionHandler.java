@@ -1,21 +1,34 @@
 package com.justlife.cleaning.cleaning_service.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     @ExceptionHandler(BookingValidationException.class)
     public ResponseEntity<Object> handleBookingValidation(BookingValidationException ex) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    // Raised by the booking_cleaner_no_overlap exclusion constraint when a concurrent booking won the race
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (hasSqlState(ex, EXCLUSION_VIOLATION)) {
+            return buildErrorResponse(HttpStatus.CONFLICT, "Cleaner is already booked at that time or break too short");
+        }
+        return buildErrorResponse(HttpStatus.CONFLICT, "Request conflicts with existing data");
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> handleIllegalArgument(IllegalArgumentException ex) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
@@ -26,6 +39,15 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
     }
 
+    private static boolean hasSqlState(Throwable ex, String sqlState) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sqlState.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private ResponseEntity<Object> buildErrorResponse(HttpStatus status, String message) {
         Map<String, Object> body = Map.of(
                 "timestamp", LocalDateTime.now(),
@@ -0,0 +1,84 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.justlife.cleaning.cleaning_service.domain.BookingEvent;
+import com.justlife.cleaning.cleaning_service.dto.BookingChange;
+import com.justlife.cleaning.cleaning_service.dto.BookingChanges;
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
+import com.justlife.cleaning.cleaning_service.region.RegionScoped;
+import com.justlife.cleaning.cleaning_service.repository.BookingEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Long-poll reads of the outbox by feed position. A poll with nothing after sinceSeq parks without a thread
+// until the relay reports a higher position (sequenced here or by another instance) or the wait runs out.
+@Component
+@RegionScoped
+@RequiredArgsConstructor
+public class BookingChangeFeed {
+
+    private record Waiter(long sinceSeq, int limit, DeferredResult<BookingChanges> result) {}
+
+    private final BookingEventRepository eventRepo;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    // Highest feed position the relay has seen
+    private volatile long lastSeq;
+
+    public BookingChanges read(long sinceSeq, int limit) {
+        List<BookingChange> changes = eventRepo.findByFeedSeqGreaterThanOrderByFeedSeq(sinceSeq, Limit.of(limit))
+                .stream()
+                .map(BookingChangeFeed::toChange)
+                .toList();
+        return new BookingChanges(changes, changes.isEmpty() ? sinceSeq : changes.get(changes.size() - 1).seq());
+    }
+
+    public DeferredResult<BookingChanges> poll(long sinceSeq, int limit, Duration wait) {
+        DeferredResult<BookingChanges> result =
+                new DeferredResult<>(wait.toMillis(), new BookingChanges(List.of(), sinceSeq));
+        BookingChanges changes = read(sinceSeq, limit);
+        if (!changes.changes().isEmpty() || wait.isZero()) {
+            result.setResult(changes);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(sinceSeq, limit, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // Sequenced between the read and the registration
+        if (lastSeq > sinceSeq) {
+            wake(waiter);
+        }
+        return result;
+    }
+
+    // Called by the relay after every sequencing pass. A waiter behind seq has changes to read, so it is
+    // answered on the first pass that reaches it
+    void advanceTo(long seq) {
+        lastSeq = Math.max(lastSeq, seq);
+        for (Waiter waiter : waiters) {
+            if (waiter.sinceSeq() < seq) {
+                wake(waiter);
+            }
+        }
+    }
+
+    private void wake(Waiter waiter) {
+        BookingChanges changes = read(waiter.sinceSeq(), waiter.limit());
+        if (!changes.changes().isEmpty()) {
+            waiter.result().setResult(changes);
+        }
+    }
+
+    static BookingChange toChange(BookingEvent e) {
+        return new BookingChange(e.getFeedSeq(), RegionContext.current(), e.getBookingId(), e.getType().name(),
+                e.getPayload(), e.getCreatedAt());
+    }
+}
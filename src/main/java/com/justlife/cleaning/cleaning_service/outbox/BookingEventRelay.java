@@ -0,0 +1,121 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.justlife.cleaning.cleaning_service.domain.BookingEvent;
+import com.justlife.cleaning.cleaning_service.domain.OutboxCursor;
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
+import com.justlife.cleaning.cleaning_service.region.RegionScoped;
+import com.justlife.cleaning.cleaning_service.repository.BookingEventRepository;
+import com.justlife.cleaning.cleaning_service.repository.OutboxCursorRepository;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+// Drains the outbox in two steps, each its own transaction under a cursor row lock:
+//  - sequence: number newly committed events with the next feed positions. Ids come from a pooled sequence
+//    and commit out of order, so readers page by feed position, which is handed out and committed in order.
+//  - deliver: send the events after the sink cursor to the sink, batchSize at a time, and move the cursor only
+//    once the sink returned. A crash in between resends the batch (at-least-once); a failing or full sink
+//    backs the relay off exponentially while events keep accumulating in the table.
+// Each region has its own outbox, cursors and backoff; OutboxRelayConfiguration runs one pass per region.
+@Component
+@RegionScoped
+public class BookingEventRelay {
+
+    static final String SEQUENCER = "sequencer";
+    static final String SINK = "sink";
+
+    private final BookingEventRepository eventRepo;
+    private final OutboxCursorRepository cursorRepo;
+    private final BookingEventSink sink;
+    private final BookingChangeFeed feed;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    // Touched by the scheduler thread only
+    private int failures;
+    private long retryAt;
+
+    public BookingEventRelay(BookingEventRepository eventRepo,
+                             OutboxCursorRepository cursorRepo,
+                             BookingEventSink sink,
+                             BookingChangeFeed feed,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${outbox.relay.batch-size:500}") int batchSize,
+                             @Value("${outbox.relay.initial-backoff:200ms}") Duration initialBackoff,
+                             @Value("${outbox.relay.max-backoff:30s}") Duration maxBackoff) {
+        this.eventRepo = eventRepo;
+        this.cursorRepo = cursorRepo;
+        this.sink = sink;
+        this.feed = feed;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retryAt = System.nanoTime();
+    }
+
+    public void relay() {
+        feed.advanceTo(sequence());
+        if (System.nanoTime() - retryAt >= 0) {
+            deliver();
+        }
+    }
+
+    // Returns the last feed position handed out, by this instance or another
+    long sequence() {
+        Pass pass;
+        do {
+            pass = tx.execute(status -> {
+                OutboxCursor cursor = lock(SEQUENCER);
+                long seq = cursor.getPosition();
+                List<BookingEvent> events = eventRepo.findByFeedSeqIsNullOrderById(Limit.of(batchSize));
+                for (BookingEvent event : events) {
+                    event.setFeedSeq(++seq);
+                }
+                cursor.setPosition(seq);
+                return new Pass(seq, events.size());
+            });
+        } while (pass.events() == batchSize);
+        return pass.position();
+    }
+
+    void deliver() {
+        Pass pass;
+        do {
+            try {
+                pass = tx.execute(status -> {
+                    OutboxCursor cursor = lock(SINK);
+                    List<BookingEvent> batch = eventRepo.findByFeedSeqGreaterThanOrderByFeedSeq(
+                            cursor.getPosition(), Limit.of(batchSize));
+                    if (!batch.isEmpty()) {
+                        sink.send(batch.stream().map(BookingChangeFeed::toChange).toList());
+                        cursor.setPosition(batch.get(batch.size() - 1).getFeedSeq());
+                    }
+                    return new Pass(cursor.getPosition(), batch.size());
+                });
+            } catch (RuntimeException e) {
+                Metrics.counter("booking.outbox.delivery.failures", "region", RegionContext.current()).increment();
+                long backoff = initialBackoff.toNanos() << Math.min(failures++, 20);
+                retryAt = System.nanoTime() + Math.min(backoff, maxBackoff.toNanos());
+                return;
+            }
+            failures = 0;
+            Metrics.counter("booking.outbox.delivered", "region", RegionContext.current()).increment(pass.events());
+        } while (pass.events() == batchSize);
+    }
+
+    // The row is created on first use when the V5 seed rows are missing (schema from ddl-auto)
+    private OutboxCursor lock(String name) {
+        return cursorRepo.lockByName(name).orElseGet(() -> cursorRepo.saveAndFlush(new OutboxCursor(name, 0L)));
+    }
+
+    private record Pass(long position, int events) {}
+}
@@ -0,0 +1,31 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.cleaning.cleaning_service.dto.BookingChange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Where the relay delivers booking events, chosen by outbox.sink (file, http or queue). A batch arrives in
+// feed order and is acknowledged by returning; throwing leaves all of it for a retry, so a sink may see a
+// batch again (at-least-once) and consumers dedupe by region and seq.
+public interface BookingEventSink {
+
+    void send(List<BookingChange> batch);
+
+    // One JSON object per line
+    static byte[] ndjson(ObjectMapper objectMapper, List<BookingChange> batch) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(batch.size() * 256);
+        try {
+            for (BookingChange change : batch) {
+                out.writeBytes(objectMapper.writeValueAsBytes(change));
+                out.write('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
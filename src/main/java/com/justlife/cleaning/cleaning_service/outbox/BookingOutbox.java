@@ -0,0 +1,65 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.justlife.cleaning.cleaning_service.domain.BookingEvent;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.repository.BookingEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Appends booking events in the caller's transaction, so an event commits or rolls back with its change.
+// Delivery is the relay's job; nothing here waits on a consumer.
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+
+    // Own mapper: the payload format must not follow the HTTP layer's Jackson settings
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final BookingEventRepository eventRepo;
+
+    public void created(BookingResponse booking) {
+        eventRepo.save(event(BookingEvent.Type.CREATED, booking.id(), booking));
+    }
+
+    // Batch creates: written in the same JDBC batches as the bookings
+    public void createdAll(List<BookingResponse> bookings) {
+        eventRepo.saveAll(bookings.stream()
+                .map(b -> event(BookingEvent.Type.CREATED, b.id(), b))
+                .toList());
+    }
+
+    public void updated(BookingResponse booking) {
+        eventRepo.save(event(BookingEvent.Type.UPDATED, booking.id(), booking));
+    }
+
+    public void cancelled(List<Long> bookingIds) {
+        eventRepo.saveAll(bookingIds.stream()
+                .map(id -> event(BookingEvent.Type.CANCELLED, id, Map.of("id", id)))
+                .toList());
+    }
+
+    private static BookingEvent event(BookingEvent.Type type, Long bookingId, Object payload) {
+        try {
+            return BookingEvent.builder()
+                    .bookingId(bookingId)
+                    .type(type)
+                    .payload(JSON.writeValueAsString(payload))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize booking event", e);
+        }
+    }
+}
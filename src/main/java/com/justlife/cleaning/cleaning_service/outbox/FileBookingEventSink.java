@@ -0,0 +1,45 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.cleaning.cleaning_service.dto.BookingChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends NDJSON to a local file, forced to disk before the batch counts as delivered. The default sink.
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileBookingEventSink implements BookingEventSink {
+
+    private final Path path;
+
+    private final ObjectMapper objectMapper;
+
+    public FileBookingEventSink(@Value("${outbox.sink.file.path:booking-events.ndjson}") Path path,
+                                ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void send(List<BookingChange> batch) {
+        ByteBuffer lines = ByteBuffer.wrap(BookingEventSink.ndjson(objectMapper, batch));
+        try (FileChannel file = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (lines.hasRemaining()) {
+                file.write(lines);
+            }
+            file.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.cleaning.cleaning_service.dto.BookingChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+// POSTs each batch as NDJSON; any answer but 2xx, or none within the timeout, leaves the batch for a retry
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "http")
+public class HttpBookingEventSink implements BookingEventSink {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+
+    private final URI uri;
+
+    private final ObjectMapper objectMapper;
+
+    public HttpBookingEventSink(@Value("${outbox.sink.http.url}") URI uri, ObjectMapper objectMapper) {
+        this.uri = uri;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void send(List<BookingChange> batch) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(BookingEventSink.ndjson(objectMapper, batch)))
+                .build();
+        int status;
+        try {
+            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending booking events", e);
+        }
+        if (status / 100 != 2) {
+            throw new IllegalStateException("Booking event endpoint answered " + status);
+        }
+    }
+}
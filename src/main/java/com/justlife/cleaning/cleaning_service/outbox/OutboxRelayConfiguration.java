@@ -0,0 +1,34 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
+import com.justlife.cleaning.cleaning_service.region.RegionProperties;
+import io.micrometer.core.instrument.Metrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Runs the relay on a schedule, one pass per region. Kept off the application class so test slices that import
+// the relay drive it by hand; outbox.relay.enabled=false leaves draining to other instances.
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@ConditionalOnProperty(name = "outbox.relay.enabled", matchIfMissing = true)
+@RequiredArgsConstructor
+public class OutboxRelayConfiguration {
+
+    private final BookingEventRelay relay;
+    private final RegionProperties regions;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        for (String region : regions.names()) {
+            // A region whose database is down must not hold back the others
+            try {
+                RegionContext.run(region, relay::relay);
+            } catch (RuntimeException e) {
+                Metrics.counter("booking.outbox.relay.failures", "region", region).increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.justlife.cleaning.cleaning_service.dto.BookingChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Bounded in-memory queue for in-process consumers, opt-in since nothing drains it unless one is wired to
+// queue(). A batch goes in whole or not at all: when the queue cannot take it the relay backs off and the
+// events wait in the outbox table instead of the heap.
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "queue")
+public class QueueBookingEventSink implements BookingEventSink {
+
+    private final BlockingQueue<BookingChange> queue;
+
+    public QueueBookingEventSink(@Value("${outbox.sink.queue.capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    // The relay is the only producer, so the capacity can only grow between the check and addAll
+    @Override
+    public void send(List<BookingChange> batch) {
+        if (queue.remainingCapacity() < batch.size()) {
+            throw new IllegalStateException("Booking event queue is full");
+        }
+        queue.addAll(batch);
+    }
+
+    public BlockingQueue<BookingChange> queue() {
+        return queue;
+    }
+}
@@ -0,0 +1,14 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import jakarta.persistence.PrePersist;
+
+// JPA listener on regional entities: a new row without a region gets the region it is written in
+public class RegionAssigner {
+
+    @PrePersist
+    void onInsert(Object entity) {
+        if (entity instanceof Regional regional && regional.getRegion() == null) {
+            regional.setRegion(RegionContext.current());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.CustomScopeConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Registers the region scope. Kept apart from the DataSource and web wiring so test slices that import
+// region-scoped beans only need this class.
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RegionProperties.class)
+public class RegionConfiguration {
+
+    @Bean
+    public static CustomScopeConfigurer regionScope() {
+        CustomScopeConfigurer configurer = new CustomScopeConfigurer();
+        configurer.addScope(RegionScope.NAME, new RegionScope());
+        return configurer;
+    }
+
+    // Names the default region for threads bound to none, then creates every region's scoped beans up front,
+    // so the first request in a region does not pay for priming its caches
+    @Bean
+    public SmartInitializingSingleton regionWarmUp(RegionProperties properties,
+                                                   ConfigurableListableBeanFactory beanFactory) {
+        return () -> {
+            RegionContext.setDefault(properties.getDefaultRegion());
+            List<String> scoped = Arrays.stream(beanFactory.getBeanDefinitionNames())
+                    .filter(name -> RegionScope.NAME.equals(beanFactory.getBeanDefinition(name).getScope()))
+                    .toList();
+            for (String region : properties.names()) {
+                RegionContext.run(region, () -> scoped.forEach(beanFactory::getBean));
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import java.util.function.Supplier;
+
+// The region the current thread works for, held like LocaleContextHolder holds a locale: bound per request by
+// RegionInterceptor and per region by the scheduled jobs. Threads with none work for the default region.
+public final class RegionContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private static volatile String defaultRegion = RegionProperties.DEFAULT_REGION;
+
+    private RegionContext() {
+    }
+
+    public static String current() {
+        String region = CURRENT.get();
+        return region != null ? region : defaultRegion;
+    }
+
+    public static void run(String region, Runnable task) {
+        call(region, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T call(String region, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(region);
+        try {
+            return task.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // Carries the caller's region over to another thread
+    public static Runnable wrap(Runnable task) {
+        String region = current();
+        return () -> run(region, task);
+    }
+
+    static void setDefault(String region) {
+        defaultRegion = region;
+    }
+
+    static void bind(String region) {
+        CURRENT.set(region);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import com.justlife.cleaning.cleaning_service.replica.ReplicaProperties;
+import com.justlife.cleaning.cleaning_service.replica.ReplicatedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.MultiTenancySettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// One connection pool per region behind a single routing DataSource, so Hibernate, the repositories and the
+// transaction manager are shared by every region while each region's rows stay in its own database, and Flyway
+// migrates each of them through the same DataSource. A region with a replica sends its read-only transactions
+// there (see ReplicatedDataSource).
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class RegionDataSourceConfiguration {
+
+    @Bean
+    public RegionRoutingDataSource dataSource(DataSourceProperties main, RegionProperties regions,
+                                              ReplicaProperties replicas) {
+        // Flyway and Hibernate connect before the region warm-up runs, and unbound threads route by the default
+        RegionContext.setDefault(regions.getDefaultRegion());
+        Map<String, DataSource> databases = new HashMap<>();
+        databases.put(regions.getDefaultRegion(),
+                main.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+        regions.getDatabases().forEach((region, database) -> databases.put(region, pool(database)));
+        replicas.getDatabases().forEach((region, replica) -> {
+            DataSource primary = databases.get(region);
+            if (primary == null) {
+                throw new IllegalStateException("Replica configured for unknown region " + region);
+            }
+            databases.put(region, new ReplicatedDataSource(primary, pool(replica)));
+        });
+        return new RegionRoutingDataSource(regions.getDefaultRegion(), databases);
+    }
+
+    @Bean
+    public FlywayMigrationStrategy regionMigrations(RegionProperties regions) {
+        return flyway -> regions.names().forEach(region -> RegionContext.run(region, flyway::migrate));
+    }
+
+    private static DataSource pool(RegionProperties.Database database) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(database.getUrl())
+                .username(database.getUsername())
+                .password(database.getPassword())
+                .build();
+    }
+
+    // Hibernate hands out pooled sequence values per tenant; naming the region as the tenant keeps one region's
+    // inserts from using ids allocated from another region's sequence
+    @Bean
+    public HibernatePropertiesCustomizer regionTenantResolver() {
+        CurrentTenantIdentifierResolver<String> resolver = new CurrentTenantIdentifierResolver<>() {
+            @Override
+            public String resolveCurrentTenantIdentifier() {
+                return RegionContext.current();
+            }
+
+            @Override
+            public boolean validateExistingCurrentSessions() {
+                return false;
+            }
+        };
+        return properties -> properties.put(MultiTenancySettings.MULTI_TENANT_IDENTIFIER_RESOLVER, resolver);
+    }
+}
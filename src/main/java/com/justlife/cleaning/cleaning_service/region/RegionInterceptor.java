@@ -0,0 +1,49 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Set;
+
+// Binds each request to the region in its X-Region header, or to the default region without one. An unknown
+// region is a 400 before the handler runs. Answers vary by the header, so shared caches keep regions apart.
+class RegionInterceptor implements AsyncHandlerInterceptor {
+
+    static final String HEADER = "X-Region";
+
+    private final String defaultRegion;
+    private final Set<String> regions;
+
+    RegionInterceptor(RegionProperties properties) {
+        this.defaultRegion = properties.getDefaultRegion();
+        this.regions = Set.copyOf(properties.names());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String region = request.getHeader(HEADER);
+        if (region == null || region.isBlank()) {
+            region = defaultRegion;
+        } else if (!regions.contains(region)) {
+            throw new IllegalArgumentException("Unknown region " + region);
+        }
+        RegionContext.bind(region);
+        response.addHeader(HttpHeaders.VARY, HEADER);
+        return true;
+    }
+
+    // Async work the handler started carries the region itself (see RegionWebConfiguration)
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        RegionContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RegionContext.clear();
+    }
+}
@@ -0,0 +1,37 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// regions.*: the name of the region spring.datasource.* serves, which requests without an X-Region header go
+// to, plus a database per further region under regions.databases.<region>.*. A region can also be a schema of
+// a shared database, chosen in its URL (e.g. ?currentSchema=riyadh).
+@ConfigurationProperties(prefix = "regions")
+@Data
+public class RegionProperties {
+
+    static final String DEFAULT_REGION = "default";
+
+    private String defaultRegion = DEFAULT_REGION;
+    private Map<String, Database> databases = new HashMap<>();
+
+    @Data
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    // The default region first, then the others by name
+    public List<String> names() {
+        List<String> names = new ArrayList<>();
+        names.add(defaultRegion);
+        databases.keySet().stream().filter(name -> !name.equals(defaultRegion)).sorted().forEach(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,34 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Hands out connections from the caller's region's pool (see RegionContext). A transaction takes its connection
+// when it begins, so the region must be bound before then and stays fixed for the transaction.
+public class RegionRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public RegionRoutingDataSource(String defaultRegion, Map<String, DataSource> databases) {
+        setTargetDataSources(new HashMap<>(databases));
+        setDefaultTargetDataSource(databases.get(defaultRegion));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return RegionContext.current();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource database : getResolvedDataSources().values()) {
+            if (database instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One instance of a region-scoped bean per region, picked by the caller's region (see RegionContext). Each
+// region's schedules, roster and cached answers thus live in their own instances under their own size limits,
+// so one city's load cannot evict another's. Instances live as long as the application context.
+public class RegionScope implements Scope {
+
+    public static final String NAME = "region";
+
+    // region -> bean name -> instance
+    private final ConcurrentHashMap<String, Map<String, Object>> regions = new ConcurrentHashMap<>();
+
+    // Created under the region's lock rather than in computeIfAbsent: creating a bean may create others
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        Map<String, Object> beans = regions.computeIfAbsent(RegionContext.current(), r -> new ConcurrentHashMap<>());
+        Object bean = beans.get(name);
+        if (bean == null) {
+            synchronized (beans) {
+                bean = beans.get(name);
+                if (bean == null) {
+                    bean = objectFactory.getObject();
+                    beans.put(name, bean);
+                }
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public Object remove(String name) {
+        Map<String, Object> beans = regions.get(RegionContext.current());
+        return beans == null ? null : beans.remove(name);
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+    }
+
+    @Override
+    public Object resolveContextualObject(String key) {
+        return null;
+    }
+
+    @Override
+    public String getConversationId() {
+        return RegionContext.current();
+    }
+}
@@ -0,0 +1,19 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// A bean with one instance per region (see RegionScope). Callers hold a proxy that hands each call to the
+// instance of the caller's region, so singletons can depend on it as before.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Scope(value = RegionScope.NAME, proxyMode = ScopedProxyMode.TARGET_CLASS)
+public @interface RegionScoped {
+}
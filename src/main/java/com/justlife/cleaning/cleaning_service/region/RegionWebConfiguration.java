@@ -0,0 +1,35 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import com.justlife.cleaning.cleaning_service.replica.ReadRouting;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Binds requests to their region ahead of every other interceptor: the open-in-view interceptor opens the
+// request's Hibernate session, whose tenant (see RegionDataSourceConfiguration) is fixed when it opens.
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(RegionProperties.class)
+public class RegionWebConfiguration implements WebMvcConfigurer {
+
+    private final RegionProperties properties;
+
+    public RegionWebConfiguration(RegionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RegionInterceptor(properties)).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    // Applied by Spring Boot to the application task executor, which runs streamed responses; Boot applies a
+    // decorator only if it is the sole one, so this one also carries the read pin (see ReadRouting)
+    @Bean
+    public TaskDecorator regionTaskDecorator() {
+        return task -> RegionContext.wrap(ReadRouting.wrap(task));
+    }
+}
@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+// A row that belongs to one region; RegionAssigner stamps it with the current region when it is inserted
+public interface Regional {
+
+    String getRegion();
+
+    void setRegion(String region);
+}
@@ -0,0 +1,50 @@
+package com.justlife.cleaning.cleaning_service.replica;
+
+import java.util.function.Supplier;
+
+// Whether the current thread's read-only transactions may use the replica (see ReplicatedDataSource). Threads
+// are pinned to the primary by ReadYourWritesInterceptor for writes and for the client's reads right after them.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean replicaAllowed() {
+        return PRIMARY.get() == null;
+    }
+
+    // For loaders of resident caches, which are kept current by after-commit updates and would keep any write
+    // the replica has not caught up with out for good. Only takes effect if the transaction has not read yet.
+    public static <T> T onPrimary(Supplier<T> task) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    // Carries a pin over to another thread
+    public static Runnable wrap(Runnable task) {
+        if (replicaAllowed()) {
+            return task;
+        }
+        return () -> onPrimary(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    static void pinToPrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    static void clear() {
+        PRIMARY.remove();
+    }
+}
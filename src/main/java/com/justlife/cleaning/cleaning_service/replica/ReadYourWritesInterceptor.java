@@ -0,0 +1,59 @@
+package com.justlife.cleaning.cleaning_service.replica;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Set;
+
+// Pins writes to the primary, and the client's reads for a window after a write, so it reads its own writes
+// while the replica catches up. The window rides in a cookie, so it holds on whichever instance serves the
+// next request.
+class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    static final String COOKIE = "read-primary";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    ReadYourWritesInterceptor(Duration window) {
+        if (window.toSeconds() < 1) {
+            throw new IllegalArgumentException("replicas.read-your-writes-window must be at least a second");
+        }
+        this.window = Duration.ofSeconds(window.toSeconds());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            ReadRouting.pinToPrimary();
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, "1")
+                    .path("/")
+                    .httpOnly(true)
+                    .maxAge(window)
+                    .build()
+                    .toString());
+        } else if (WebUtils.getCookie(request, COOKIE) != null) {
+            ReadRouting.pinToPrimary();
+        }
+        return true;
+    }
+
+    // Async work the handler started carries the pin itself (see RegionWebConfiguration)
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReadRouting.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadRouting.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package com.justlife.cleaning.cleaning_service.replica;
+
+import com.justlife.cleaning.cleaning_service.region.RegionProperties;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// replicas.*: a read replica per region under replicas.databases.<region>.* (regions without one read their
+// primary), and how long a client's reads stay on the primary after it writes; whole seconds, at least one.
+@ConfigurationProperties(prefix = "replicas")
+@Data
+public class ReplicaProperties {
+
+    private Map<String, RegionProperties.Database> databases = new HashMap<>();
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
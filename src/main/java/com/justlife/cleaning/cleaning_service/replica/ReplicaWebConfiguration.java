@@ -0,0 +1,25 @@
+package com.justlife.cleaning.cleaning_service.replica;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Read-your-writes pinning, only when some region has a replica to be pinned away from
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaWebConfiguration implements WebMvcConfigurer {
+
+    private final ReplicaProperties properties;
+
+    public ReplicaWebConfiguration(ReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!properties.getDatabases().isEmpty()) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(properties.getReadYourWritesWindow()));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.justlife.cleaning.cleaning_service.replica;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// A primary with a read replica: read-only transactions read the replica unless the thread is pinned to the
+// primary (see ReadRouting), everything else goes to the primary. The physical connection is only fetched at
+// the first statement, by which time the transaction manager has marked it read-only or not.
+public class ReplicatedDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReplicatedDataSource(DataSource primary, DataSource replica) {
+        super(primary);
+        this.primary = primary;
+        this.replica = replica;
+        setReadOnlyDataSource(new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return ReadRouting.replicaAllowed() ? replica.getConnection() : primary.getConnection();
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource database : new DataSource[] {primary, replica}) {
+            if (database instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
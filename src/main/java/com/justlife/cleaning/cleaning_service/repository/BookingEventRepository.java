@@ -0,0 +1,15 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import com.justlife.cleaning.cleaning_service.domain.BookingEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    // Committed events the relay has not numbered yet, oldest first
+    List<BookingEvent> findByFeedSeqIsNullOrderById(Limit limit);
+
+    List<BookingEvent> findByFeedSeqGreaterThanOrderByFeedSeq(Long feedSeq, Limit limit);
+}
@@ -0,0 +1,14 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import java.time.LocalDateTime;
+
+// A listed booking with its cleaner ids aggregated into one comma-separated column
+public record BookingListRow(
+        Long          id,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        Integer       durationH,
+        String        customer,
+        Long          vehicleId,
+        String        cleanerIds
+) {}
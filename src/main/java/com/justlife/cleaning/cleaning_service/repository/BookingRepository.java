@@ -1,33 +1,162 @@
 package com.justlife.cleaning.cleaning_service.repository;
 
 import com.justlife.cleaning.cleaning_service.domain.Booking;
-import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByStartTimeBetween(LocalDateTime from, LocalDateTime to);
+    // One listing page in (startTime, id) order strictly after the (afterStart, afterId) key, with each
+    // booking's cleaner ids aggregated in the same statement. The first page passes (from, Long.MIN_VALUE),
+    // so every page is the same index range scan from its key. Null filters are ignored.
+    @Query("""
+        SELECT new com.justlife.cleaning.cleaning_service.repository.BookingListRow(
+            b.id, b.startTime, b.endTime, b.durationH, b.customer, b.vehicle.id,
+            listagg(cast(c.id as String), ',') within group (order by c.id))
+        FROM Booking b JOIN b.cleaners c
+        WHERE b.startTime >= :afterStart
+            AND b.startTime < :to
+            AND (b.startTime > :afterStart OR b.id > :afterId)
+            AND (:vehicleId IS NULL OR b.vehicle.id = :vehicleId)
+            AND (:customerPrefix IS NULL OR lower(b.customer) LIKE :customerPrefix ESCAPE '!')
+            AND (:cleanerId IS NULL OR EXISTS (SELECT 1 FROM b.cleaners bc WHERE bc.id = :cleanerId))
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
+        GROUP BY b.id, b.startTime, b.endTime, b.durationH, b.customer, b.vehicle.id
+        ORDER BY b.startTime, b.id
+    """)
+    List<BookingListRow> findPage(
+            @Param("afterStart")     LocalDateTime  afterStart,
+            @Param("afterId")        Long           afterId,
+            @Param("to")             LocalDateTime  to,
+            @Param("cleanerId")      Long           cleanerId,
+            @Param("vehicleId")      Long           vehicleId,
+            @Param("customerPrefix") String         customerPrefix,
+            Limit                                   limit
+    );
+
+    // One row per (booking, cleaner) overlapping [from, to), read straight from booking_cleaner
+    @Query("""
+        SELECT new com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow(
+            c.id, b.startTime, b.endTime)
+        FROM Booking b JOIN b.cleaners c
+        WHERE b.startTime < :to
+            AND b.endTime > :from
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
+    """)
+    List<CleanerBookingWindow> findCleanerWindows(
+            @Param("from")  LocalDateTime  from,
+            @Param("to")    LocalDateTime  to
+    );
+
+    // The same rows for the given cleaners only, for ranges too long to read every cleaner's bookings
+    @Query("""
+        SELECT new com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow(
+            c.id, b.startTime, b.endTime)
+        FROM Booking b JOIN b.cleaners c
+        WHERE c.id IN :cleanerIds
+            AND b.startTime < :to
+            AND b.endTime > :from
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
+    """)
+    List<CleanerBookingWindow> findCleanerWindowsOf(
+            @Param("cleanerIds")  Collection<Long>  cleanerIds,
+            @Param("from")        LocalDateTime     from,
+            @Param("to")          LocalDateTime     to
+    );
+
+    // Same rows ordered by start time, read through a forward-only cursor; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow(
+            c.id, b.startTime, b.endTime)
+        FROM Booking b JOIN b.cleaners c
+        WHERE b.startTime < :to
+            AND b.endTime > :from
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
+        ORDER BY b.startTime
+    """)
+    Stream<CleanerBookingWindow> streamCleanerWindows(
+            @Param("from")  LocalDateTime  from,
+            @Param("to")    LocalDateTime  to
+    );
+
+    // Bookings starting in [from, to) in (startTime, id) order, as listing rows, read through a forward-only
+    // cursor; consume inside a read-only transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new com.justlife.cleaning.cleaning_service.repository.BookingListRow(
+            b.id, b.startTime, b.endTime, b.durationH, b.customer, b.vehicle.id,
+            listagg(cast(c.id as String), ',') within group (order by c.id))
+        FROM Booking b JOIN b.cleaners c
+        WHERE b.startTime >= :from
+            AND b.startTime < :to
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
+        GROUP BY b.id, b.startTime, b.endTime, b.durationH, b.customer, b.vehicle.id
+        ORDER BY b.startTime, b.id
+    """)
+    Stream<BookingListRow> streamForExport(
+            @Param("from")  LocalDateTime  from,
+            @Param("to")    LocalDateTime  to
+    );
+
+    // The active bookings among ids, row-locked so a concurrent cancel of the same booking waits and then
+    // finds it cancelled
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT b.id FROM Booking b
+        WHERE b.id IN :ids
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
+    """)
+    List<Long> lockActiveIds(@Param("ids") Collection<Long> ids);
+
+    // One row per (booking, cleaner) of the given bookings
+    @Query("""
+        SELECT new com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow(
+            c.id, b.startTime, b.endTime)
+        FROM Booking b JOIN b.cleaners c
+        WHERE b.id IN :ids
+    """)
+    List<CleanerBookingWindow> findWindowsOf(@Param("ids") Collection<Long> ids);
+
+    // One statement for the whole set; the V6 trigger empties the cleaners' busy ranges of each row
+    @Modifying
+    @Query("""
+        UPDATE Booking b
+        SET b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.CANCELLED,
+            b.cancelledAt = :cancelledAt
+        WHERE b.id IN :ids
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
+    """)
+    int cancel(@Param("ids") Collection<Long> ids, @Param("cancelledAt") LocalDateTime cancelledAt);
 
+    // Ids among cleanerIds with a booking overlapping [start, end)
     @Query("""
-        SELECT CASE WHEN EXISTS (
-            SELECT 1 FROM Booking b JOIN b.cleaners c
-            WHERE c = :cleaner
-                AND :end > b.startTime
-                AND :start < b.endTime
-                AND (:excludeId IS NULL OR b.id <> :excludeId)
-        ) THEN true ELSE false END
+        SELECT DISTINCT c.id FROM Booking b JOIN b.cleaners c
+        WHERE c.id IN :cleanerIds
+            AND :end > b.startTime
+            AND :start < b.endTime
+            AND (:excludeId IS NULL OR b.id <> :excludeId)
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
     """)
-    boolean hasOverlap(
-            @Param("cleaner")    Cleaner        cleaner,
-            @Param("start")      LocalDateTime  start,
-            @Param("end")        LocalDateTime  end,
-            @Param("excludeId")  Long           excludeId
+    List<Long> findBusyCleanerIds(
+            @Param("cleanerIds") Collection<Long> cleanerIds,
+            @Param("start")      LocalDateTime    start,
+            @Param("end")        LocalDateTime    end,
+            @Param("excludeId")  Long             excludeId
     );
 }
\ No newline at end of file
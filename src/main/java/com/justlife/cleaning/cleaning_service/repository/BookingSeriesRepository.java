@@ -0,0 +1,47 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import com.justlife.cleaning.cleaning_service.domain.BookingSeries;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+
+    // One row per (series, cleaner) for series that may have virtual occurrences in [from, to]
+    @Query("""
+        SELECT new com.justlife.cleaning.cleaning_service.repository.SeriesCleanerRow(
+            c.id, s.firstDate, s.untilDate, s.intervalWeeks, s.daysMask, s.materializedThrough,
+            s.startTime, s.durationH)
+        FROM BookingSeries s JOIN s.cleaners c
+        WHERE s.firstDate <= :to
+            AND s.untilDate >= :from
+            AND s.materializedThrough < :to
+            AND s.materializedThrough < s.untilDate
+    """)
+    List<SeriesCleanerRow> findVirtual(
+            @Param("from")  LocalDate  from,
+            @Param("to")    LocalDate  to
+    );
+
+    // Series with occurrences still virtual on or before through
+    @Query("""
+        SELECT s.id FROM BookingSeries s
+        WHERE s.materializedThrough < :through
+            AND s.materializedThrough < s.untilDate
+        ORDER BY s.id
+    """)
+    List<Long> findDueIds(@Param("through") LocalDate through);
+
+    // Row-locked so two instances materializing the same series take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookingSeries s WHERE s.id = :id")
+    Optional<BookingSeries> lockById(@Param("id") Long id);
+}
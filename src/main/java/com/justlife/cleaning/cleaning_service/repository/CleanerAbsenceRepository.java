@@ -0,0 +1,25 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import com.justlife.cleaning.cleaning_service.domain.CleanerAbsence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CleanerAbsenceRepository extends JpaRepository<CleanerAbsence, Long> {
+
+    // Absences still running after from; ones that ended earlier can no longer affect a booking
+    @Query("SELECT a FROM CleanerAbsence a WHERE a.endTime > :from")
+    List<CleanerAbsence> findEndingAfter(@Param("from") LocalDateTime from);
+
+    // One statement for every cleaner in a roster upload
+    @Modifying
+    @Query("DELETE FROM CleanerAbsence a WHERE a.cleanerId IN :cleanerIds")
+    int deleteByCleanerIds(@Param("cleanerIds") Collection<Long> cleanerIds);
+}
@@ -0,0 +1,9 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import java.time.LocalDateTime;
+
+public record CleanerBookingWindow(
+        Long          cleanerId,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {}
@@ -1,7 +1,6 @@
 package com.justlife.cleaning.cleaning_service.repository;
 
 import com.justlife.cleaning.cleaning_service.domain.Cleaner;
-import com.justlife.cleaning.cleaning_service.domain.Vehicle;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,9 +19,13 @@ public interface CleanerRepository extends JpaRepository<Cleaner, Long> {
             WHERE c MEMBER OF b.cleaners
             AND b.startTime < :endTime
             AND b.endTime > :startTime
+            AND b.status = com.justlife.cleaning.cleaning_service.domain.BookingStatus.ACTIVE
         )
         """)
     List<Cleaner> findAvailableCleaners(@Param("startTime") LocalDateTime startTime,
                                         @Param("endTime") LocalDateTime endTime);
 
+    @Query("SELECT c FROM Cleaner c JOIN FETCH c.vehicle")
+    List<Cleaner> findAllWithVehicle();
+
 }
@@ -0,0 +1,19 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import com.justlife.cleaning.cleaning_service.domain.CleanerShift;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface CleanerShiftRepository extends JpaRepository<CleanerShift, Long> {
+
+    // One statement for every cleaner in a roster upload
+    @Modifying
+    @Query("DELETE FROM CleanerShift s WHERE s.cleanerId IN :cleanerIds")
+    int deleteByCleanerIds(@Param("cleanerIds") Collection<Long> cleanerIds);
+}
@@ -0,0 +1,18 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import com.justlife.cleaning.cleaning_service.domain.OutboxCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface OutboxCursorRepository extends JpaRepository<OutboxCursor, String> {
+
+    // SELECT ... FOR UPDATE: held until the relay transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM OutboxCursor c WHERE c.name = :name")
+    Optional<OutboxCursor> lockByName(@Param("name") String name);
+}
@@ -0,0 +1,15 @@
+package com.justlife.cleaning.cleaning_service.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record SeriesCleanerRow(
+        Long       cleanerId,
+        LocalDate  firstDate,
+        LocalDate  untilDate,
+        Integer    intervalWeeks,
+        Integer    daysMask,
+        LocalDate  materializedThrough,
+        LocalTime  startTime,
+        Integer    durationH
+) {}
@@ -0,0 +1,49 @@
+package com.justlife.cleaning.cleaning_service.rules;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Every configured region's rules, compiled once at startup; regions without their own set use the defaults
+public final class BookingRuleBook {
+
+    public static final BookingRuleBook DEFAULT = new BookingRuleBook(BookingRules.DEFAULT, Map.of());
+
+    private final BookingRules defaults;
+    private final Map<String, BookingRules> regions;
+
+    private BookingRuleBook(BookingRules defaults, Map<String, BookingRules> regions) {
+        this.defaults = defaults;
+        this.regions = regions;
+    }
+
+    public static BookingRuleBook compile(BookingRuleProperties properties) {
+        BookingRules defaults = BookingRules.compile(daysOff(properties.getDaysOff()),
+                LocalTime.parse(properties.getOpens()), LocalTime.parse(properties.getCloses()),
+                properties.getDurationHours(), properties.getMinCleaners(), properties.getMaxCleaners());
+        Map<String, BookingRules> regions = new HashMap<>();
+        properties.getRegions().forEach((name, region) -> regions.put(name, BookingRules.compile(
+                daysOff(region.getDaysOff() != null ? region.getDaysOff() : properties.getDaysOff()),
+                LocalTime.parse(region.getOpens() != null ? region.getOpens() : properties.getOpens()),
+                LocalTime.parse(region.getCloses() != null ? region.getCloses() : properties.getCloses()),
+                region.getDurationHours() != null ? region.getDurationHours() : properties.getDurationHours(),
+                region.getMinCleaners() != null ? region.getMinCleaners() : properties.getMinCleaners(),
+                region.getMaxCleaners() != null ? region.getMaxCleaners() : properties.getMaxCleaners())));
+        return new BookingRuleBook(defaults, Map.copyOf(regions));
+    }
+
+    public BookingRules defaults() {
+        return defaults;
+    }
+
+    public BookingRules forRegion(String region) {
+        return region == null ? defaults : regions.getOrDefault(region, defaults);
+    }
+
+    private static EnumSet<DayOfWeek> daysOff(List<DayOfWeek> days) {
+        return days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+    }
+}
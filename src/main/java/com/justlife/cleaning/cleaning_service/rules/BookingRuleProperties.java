@@ -0,0 +1,34 @@
+package com.justlife.cleaning.cleaning_service.rules;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// booking.rules.*: the default rule set, plus per-region overrides under booking.rules.regions.<region>.*
+// whose unset fields keep the defaults. Times are HH:mm on the half-hour grid between 08:00 and 22:00.
+@ConfigurationProperties(prefix = "booking.rules")
+@Data
+public class BookingRuleProperties {
+
+    private List<DayOfWeek> daysOff = List.of(DayOfWeek.FRIDAY);
+    private String opens = "08:00";
+    private String closes = "22:00";
+    private List<Integer> durationHours = List.of(2, 4);
+    private int minCleaners = 1;
+    private int maxCleaners = 3;
+    private Map<String, Region> regions = new HashMap<>();
+
+    @Data
+    public static class Region {
+        private List<DayOfWeek> daysOff;
+        private String opens;
+        private String closes;
+        private List<Integer> durationHours;
+        private Integer minCleaners;
+        private Integer maxCleaners;
+    }
+}
@@ -0,0 +1,172 @@
+package com.justlife.cleaning.cleaning_service.rules;
+
+import com.justlife.cleaning.cleaning_service.schedule.SlotMask;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// One rule set compiled into an immutable chain of primitive checks, run cheapest first (day, hours, duration,
+// team size) and stopped at the first failure. Each check's Violation is built at compile time, so checking
+// allocates nothing. Rules that need the roster or the schedule run after this chain, in BookingService.
+public final class BookingRules {
+
+    // Today's rules: Fridays off, 08:00-22:00, 2 or 4 hours, 1-3 cleaners
+    public static final BookingRules DEFAULT = compile(
+            EnumSet.of(DayOfWeek.FRIDAY), SlotMask.START_OF_DAY, SlotMask.END_OF_DAY, List.of(2, 4), 1, 3);
+
+    // rule is a fixed tag for metrics, message is what the client sees
+    public record Violation(String rule, String message) {}
+
+    @FunctionalInterface
+    private interface Check {
+        boolean passes(int dayOfWeek, int startMinute, int durationHours, int cleaners);
+    }
+
+    private final Check[] checks;
+    private final Violation[] violations;
+    private final int daysOffMask;
+    private final int durationMask;
+    private final int opensMinute;
+    private final int closesMinute;
+    private final int minDurationHours;
+    private final int minCleaners;
+    // Indexed by duration in slots; see startMask
+    private final long[] startMasks;
+
+    private BookingRules(Check[] checks, Violation[] violations, int daysOffMask, int durationMask,
+                         int opensMinute, int closesMinute, int minDurationHours, int minCleaners) {
+        this.checks = checks;
+        this.violations = violations;
+        this.daysOffMask = daysOffMask;
+        this.durationMask = durationMask;
+        this.opensMinute = opensMinute;
+        this.closesMinute = closesMinute;
+        this.minDurationHours = minDurationHours;
+        this.minCleaners = minCleaners;
+        this.startMasks = new long[SlotMask.SLOTS_PER_DAY + 1];
+        for (int durationSlots = 0; durationSlots <= SlotMask.SLOTS_PER_DAY; durationSlots++) {
+            for (int slot = 0; slot < SlotMask.SLOTS_PER_DAY; slot++) {
+                int start = SlotMask.minuteOfDay(SlotMask.startOf(slot));
+                if (start >= opensMinute && start + durationSlots * SlotMask.SLOT_MINUTES <= closesMinute) {
+                    startMasks[durationSlots] |= 1L << slot;
+                }
+            }
+        }
+    }
+
+    public static BookingRules compile(Set<DayOfWeek> daysOff, LocalTime opens, LocalTime closes,
+                                       Collection<Integer> durationHours, int minCleaners, int maxCleaners) {
+        int opensMinute = SlotMask.minuteOfDay(opens);
+        int closesMinute = SlotMask.minuteOfDay(closes);
+        if (opens.isBefore(SlotMask.START_OF_DAY) || closes.isAfter(SlotMask.END_OF_DAY)
+                || opensMinute % SlotMask.SLOT_MINUTES != 0 || closesMinute % SlotMask.SLOT_MINUTES != 0
+                || closesMinute <= opensMinute) {
+            throw new IllegalArgumentException("Opening hours must be half-hour times within 08:00-22:00");
+        }
+        if (durationHours.isEmpty() || durationHours.stream().anyMatch(h -> h < 1 || h > 14)) {
+            throw new IllegalArgumentException("Durations must be 1-14 hours");
+        }
+        if (minCleaners < 1 || maxCleaners < minCleaners) {
+            throw new IllegalArgumentException("Team size must be at least 1 and min <= max");
+        }
+
+        int daysOffMask = 0;
+        for (DayOfWeek day : daysOff) {
+            daysOffMask |= 1 << (day.getValue() - 1);
+        }
+        int durationMask = 0;
+        for (int hours : durationHours) {
+            durationMask |= 1 << hours;
+        }
+        List<Integer> durations = durationHours.stream().distinct().sorted().toList();
+
+        List<Check> checks = new ArrayList<>();
+        List<Violation> violations = new ArrayList<>();
+        if (daysOffMask != 0) {
+            int offMask = daysOffMask;
+            checks.add((day, start, hours, cleaners) -> (offMask >>> (day - 1) & 1) == 0);
+            // Named after the days, so the default set keeps its "friday" tag
+            List<DayOfWeek> off = daysOff.stream().sorted().toList();
+            violations.add(new Violation(
+                    off.stream().map(d -> d.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining("-")),
+                    "No bookings allowed on " + either(off.stream().map(BookingRules::plural).toList())));
+        }
+        checks.add((day, start, hours, cleaners) -> start >= opensMinute && start + hours * 60 <= closesMinute);
+        violations.add(new Violation("working-hours", "Booking must be within " + opens + "-" + closes));
+        int allowed = durationMask;
+        checks.add((day, start, hours, cleaners) -> hours < 32 && (allowed >>> hours & 1) == 1);
+        violations.add(new Violation("duration",
+                "Duration must be " + either(durations.stream().map(String::valueOf).toList()) + " hours"));
+        checks.add((day, start, hours, cleaners) -> cleaners >= minCleaners && cleaners <= maxCleaners);
+        violations.add(new Violation("team-size", minCleaners == maxCleaners
+                ? "Must assign " + minCleaners + " cleaners"
+                : "Must assign " + minCleaners + "-" + maxCleaners + " cleaners"));
+
+        return new BookingRules(checks.toArray(Check[]::new), violations.toArray(Violation[]::new),
+                daysOffMask, durationMask, opensMinute, closesMinute, durations.get(0), minCleaners);
+    }
+
+    // First rule a booking breaks, or null
+    public Violation check(LocalDate date, LocalTime startTime, int durationHours, int cleaners) {
+        int day = date.getDayOfWeek().getValue();
+        int start = SlotMask.minuteOfDay(startTime);
+        for (int i = 0; i < checks.length; i++) {
+            if (!checks[i].passes(day, start, durationHours, cleaners)) {
+                return violations[i];
+            }
+        }
+        return null;
+    }
+
+    // Same chain before a team is chosen
+    public Violation checkSlot(LocalDate date, LocalTime startTime, int durationHours) {
+        return check(date, startTime, durationHours, minCleaners);
+    }
+
+    // Whether any start on the date can take a booking of this length; availability offers none otherwise
+    public boolean bookable(LocalDate date, int durationHours) {
+        return (daysOffMask >>> (date.getDayOfWeek().getValue() - 1) & 1) == 0
+                && durationHours < 32 && (durationMask >>> durationHours & 1) == 1
+                && opensMinute + durationHours * 60 <= closesMinute;
+    }
+
+    public boolean isDayOff(DayOfWeek day) {
+        return (daysOffMask >>> (day.getValue() - 1) & 1) == 1;
+    }
+
+    public int opensMinute() {
+        return opensMinute;
+    }
+
+    public int closesMinute() {
+        return closesMinute;
+    }
+
+    public int minDurationHours() {
+        return minDurationHours;
+    }
+
+    // Slot-grid starts (see SlotMask) at which a booking of durationSlots lies within opening hours
+    public long startMask(int durationSlots) {
+        return durationSlots <= SlotMask.SLOTS_PER_DAY ? startMasks[durationSlots] : 0L;
+    }
+
+    private static String plural(DayOfWeek day) {
+        String name = day.name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT) + "s";
+    }
+
+    // "a", "a or b", "a, b or c"
+    private static String either(List<String> items) {
+        int last = items.size() - 1;
+        return last == 0 ? items.get(0) : String.join(", ", items.subList(0, last)) + " or " + items.get(last);
+    }
+}
@@ -0,0 +1,17 @@
+package com.justlife.cleaning.cleaning_service.rules;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Compiles booking.rules.* at startup, so a bad rule set fails the boot rather than the first booking. Booking
+// validation and slot generation look up the rules of the region they work for in the rule book.
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(BookingRuleProperties.class)
+public class BookingRulesConfiguration {
+
+    @Bean
+    public BookingRuleBook bookingRuleBook(BookingRuleProperties properties) {
+        return BookingRuleBook.compile(properties);
+    }
+}
@@ -0,0 +1,105 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+// One cleaner's bookings on one day: exact minute-of-day windows sorted by start, plus the slot mask
+// (booking + trailing break). Immutable; with() returns a copy.
+public final class CleanerDay {
+
+    public static final CleanerDay FREE = new CleanerDay(0L, new int[0], new int[0]);
+
+    private final long busyMask;
+    private final int[] starts;
+    private final int[] ends;
+
+    private CleanerDay(long busyMask, int[] starts, int[] ends) {
+        this.busyMask = busyMask;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public CleanerDay with(LocalDateTime start, LocalDateTime end) {
+        int startMinute = SlotMask.minuteOfDay(start.toLocalTime());
+        int endMinute = startMinute + (int) Duration.between(start, end).toMinutes();
+        return with(startMinute, endMinute);
+    }
+
+    public CleanerDay with(int startMinute, int endMinute) {
+        int n = starts.length;
+        int at = n;
+        while (at > 0 && starts[at - 1] > startMinute) {
+            at--;
+        }
+        int[] newStarts = new int[n + 1];
+        int[] newEnds = new int[n + 1];
+        System.arraycopy(starts, 0, newStarts, 0, at);
+        System.arraycopy(ends, 0, newEnds, 0, at);
+        newStarts[at] = startMinute;
+        newEnds[at] = endMinute;
+        System.arraycopy(starts, at, newStarts, at + 1, n - at);
+        System.arraycopy(ends, at, newEnds, at + 1, n - at);
+
+        long mask = SlotMask.ofBooking(startMinute, endMinute);
+        return new CleanerDay(busyMask | mask, newStarts, newEnds);
+    }
+
+    // Off-duty time needs no break on either side, so [from, to) is held as the booking whose window plus
+    // breaks covers exactly it; nothing can end before the day starts or start after it ends, so a stretch at
+    // either end needs no break there. Stretches in between are at least an hour long (see WorkingCalendar.offDuty).
+    public CleanerDay off(int fromMinute, int toMinute) {
+        int dayStart = SlotMask.minuteOfDay(SlotMask.START_OF_DAY);
+        int dayEnd = SlotMask.minuteOfDay(SlotMask.END_OF_DAY);
+        int startMinute = fromMinute <= dayStart ? fromMinute : fromMinute + ScheduleIndex.BREAK_MINUTES;
+        int endMinute = toMinute >= dayEnd ? toMinute : toMinute - ScheduleIndex.BREAK_MINUTES;
+        return with(startMinute, endMinute);
+    }
+
+    // Drops one window and rebuilds the mask from the rest; unchanged when the window is not here
+    public CleanerDay without(LocalDateTime start, LocalDateTime end) {
+        int startMinute = SlotMask.minuteOfDay(start.toLocalTime());
+        int endMinute = startMinute + (int) Duration.between(start, end).toMinutes();
+        int n = starts.length;
+        int at = 0;
+        while (at < n && (starts[at] != startMinute || ends[at] != endMinute)) {
+            at++;
+        }
+        if (at == n) {
+            return this;
+        }
+        int[] newStarts = new int[n - 1];
+        int[] newEnds = new int[n - 1];
+        System.arraycopy(starts, 0, newStarts, 0, at);
+        System.arraycopy(ends, 0, newEnds, 0, at);
+        System.arraycopy(starts, at + 1, newStarts, at, n - at - 1);
+        System.arraycopy(ends, at + 1, newEnds, at, n - at - 1);
+
+        long mask = 0L;
+        for (int i = 0; i < newStarts.length; i++) {
+            mask |= SlotMask.ofBooking(newStarts[i], newEnds[i]);
+        }
+        return new CleanerDay(mask, newStarts, newEnds);
+    }
+
+    public long busyMask() {
+        return busyMask;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    int[] starts() {
+        return starts;
+    }
+
+    int[] ends() {
+        return ends;
+    }
+
+    @Override
+    public String toString() {
+        return "CleanerDay" + Arrays.toString(starts) + Arrays.toString(ends);
+    }
+}
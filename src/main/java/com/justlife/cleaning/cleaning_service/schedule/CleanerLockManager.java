@@ -0,0 +1,83 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import com.justlife.cleaning.cleaning_service.region.RegionScoped;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Striped in-process locks keyed by cleaner id. Bookings for disjoint cleaners take different stripes and
+// run in parallel; conflicting ones serialize on the stripe instead of racing the overlap check.
+// Stripes are taken in ascending order so two callers can never deadlock. Cleaner ids repeat across regions,
+// so each region has its own stripes.
+@Component
+@RegionScoped
+public class CleanerLockManager {
+
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public CleanerLockManager() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Holds the cleaners' stripes until the surrounding transaction commits or rolls back, so the
+    // next holder's overlap check sees this booking
+    public void lockUntilCompletion(Collection<Long> cleanerIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Cleaner locks must be taken inside a transaction");
+        }
+        long stripes = stripesFor(cleanerIds);
+        lock(stripes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(stripes);
+            }
+        });
+    }
+
+    // Set of stripe indexes as a 64-bit mask; iterating set bits low to high gives the lock order
+    private static long stripesFor(Collection<Long> cleanerIds) {
+        long mask = 0;
+        for (Long id : cleanerIds) {
+            mask |= 1L << (Long.hashCode(id * 0x9E3779B97F4A7C15L) & (STRIPES - 1));
+        }
+        return mask;
+    }
+
+    private void lock(long stripes) {
+        long started = System.nanoTime();
+        boolean waited = false;
+        for (long m = stripes; m != 0; m &= m - 1) {
+            ReentrantLock lock = locks[Long.numberOfTrailingZeros(m)];
+            if (!lock.tryLock()) {
+                waited = true;
+                lock.lock();
+            }
+        }
+        waitTimer(waited).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    // One sample per acquisition, tagged with whether any stripe was held by another caller
+    private static Timer waitTimer(boolean contended) {
+        return Timer.builder("booking.lock.wait")
+                .tag("contended", Boolean.toString(contended))
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    private void unlock(long stripes) {
+        for (long m = stripes; m != 0; m &= m - 1) {
+            locks[Long.numberOfTrailingZeros(m)].unlock();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Runs independent per-partition work (one partition per vehicle) and returns results in partition order.
+// FORK_JOIN splits the partitions across the common ForkJoinPool, which suits the CPU-bound slot maths.
+// VIRTUAL_THREADS forks one virtual thread per partition inside a try-with-resources scope: no task
+// outlives the call, and the first failure cancels the rest and is rethrown to the caller.
+@Component
+public class PartitionExecutor {
+
+    public enum Mode { SERIAL, FORK_JOIN, VIRTUAL_THREADS }
+
+    private final Mode mode;
+
+    public PartitionExecutor(@Value("${availability.execution:serial}") String mode) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public <P, R> List<R> map(List<P> partitions, Function<P, R> work) {
+        if (mode == Mode.SERIAL || partitions.size() < 2) {
+            List<R> results = new ArrayList<>(partitions.size());
+            for (P partition : partitions) {
+                results.add(work.apply(partition));
+            }
+            return results;
+        }
+        if (mode == Mode.FORK_JOIN) {
+            return partitions.parallelStream().map(work).toList();
+        }
+
+        try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<R>> forks = new ArrayList<>(partitions.size());
+            for (P partition : partitions) {
+                forks.add(scope.submit(() -> work.apply(partition)));
+            }
+            List<R> results = new ArrayList<>(forks.size());
+            for (Future<R> fork : forks) {
+                results.add(join(fork, scope));
+            }
+            return results;
+        }
+    }
+
+    private static <R> R join(Future<R> fork, ExecutorService scope) {
+        try {
+            return fork.get();
+        } catch (ExecutionException e) {
+            scope.shutdownNow();
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            scope.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing availability", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// A weekly rule in the spirit of RRULE FREQ=WEEKLY;INTERVAL=n;BYDAY=...;UNTIL=...: occurrences fall on the
+// days in daysMask (bit dayOfWeek - 1) of every intervalWeeks-th week, counted from the week of firstDate,
+// between firstDate and untilDate inclusive. Fridays never occur.
+public record Recurrence(LocalDate firstDate, LocalDate untilDate, int intervalWeeks, int daysMask) {
+
+    public static int daysMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    // Occurrences within [from, to], ascending
+    public List<LocalDate> dates(LocalDate from, LocalDate to) {
+        LocalDate first = from.isAfter(firstDate) ? from : firstDate;
+        LocalDate last = to.isBefore(untilDate) ? to : untilDate;
+        LocalDate firstWeek = firstDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+            DayOfWeek day = date.getDayOfWeek();
+            if (day != DayOfWeek.FRIDAY
+                    && (daysMask >>> (day.getValue() - 1) & 1) == 1
+                    && ChronoUnit.WEEKS.between(firstWeek, date) % intervalWeeks == 0) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+}
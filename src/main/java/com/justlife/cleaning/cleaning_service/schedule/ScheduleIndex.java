@@ -0,0 +1,266 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.region.RegionScoped;
+import com.justlife.cleaning.cleaning_service.replica.ReadRouting;
+import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
+import com.justlife.cleaning.cleaning_service.repository.BookingSeriesRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow;
+import com.justlife.cleaning.cleaning_service.repository.SeriesCleanerRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+// Resident per-cleaner, per-day schedules (see CleanerDay). Both busy masks and requested windows cover
+// the booking plus its trailing 30-minute break, so two windows are disjoint exactly when the bookings
+// are at least a break apart, as validation and the booking_cleaner exclusion constraint require.
+// Occurrences of recurring series not yet written as booking rows count as bookings too, and so does time
+// a cleaner is off duty under the working calendar, merged in when a day is loaded. Bookings committed
+// through other instances are not seen until the day is loaded again, at most schedule-index.ttl later.
+@Component
+@RegionScoped
+public class ScheduleIndex {
+
+    public static final int BREAK_MINUTES = 30;
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository seriesRepository;
+    private final WorkingCalendarCache calendarCache;
+
+    // date -> the day, loading or loaded. A load is a future put in the map before its queries run, so no I/O
+    // happens inside a map compute and a write committed meanwhile is chained onto the load rather than lost.
+    // Bounded, and a day expires ttl after its load however often it is read or written here since.
+    private final AsyncCache<LocalDate, Day> days;
+
+    // Stamps every load of a day and every write to it, so a day's version never repeats, even across evictions
+    private final AtomicLong clock = new AtomicLong();
+
+    // The calendar the resident days were built with, and how many times it has changed
+    private volatile WorkingCalendar calendar;
+    private final AtomicLong calendarGeneration = new AtomicLong();
+
+    // A day's schedules (cleanerId -> schedule, immutable) and the stamp of the load or write that made them, so
+    // a reader that sees a version also sees the schedule it describes; loadedAt is in System.nanoTime() terms
+    private record Day(Map<Long, CleanerDay> schedules, long version, long loadedAt) {}
+
+    public ScheduleIndex(BookingRepository bookingRepository,
+                         BookingSeriesRepository seriesRepository,
+                         WorkingCalendarCache calendarCache,
+                         @Value("${schedule-index.max-days:500}") long maxDays,
+                         @Value("${schedule-index.ttl:1m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.seriesRepository = seriesRepository;
+        this.calendarCache = calendarCache;
+        this.days = Caffeine.newBuilder()
+                .maximumSize(maxDays)
+                .expireAfter(sinceLoad(ttl.toNanos()))
+                .buildAsync();
+    }
+
+    // Every write replaces the day's future, so expiring after write would keep a busy day resident for good
+    private static Expiry<LocalDate, Day> sinceLoad(long ttlNanos) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(LocalDate date, Day day, long currentTime) {
+                return Math.max(0, ttlNanos - (currentTime - day.loadedAt()));
+            }
+
+            @Override
+            public long expireAfterUpdate(LocalDate date, Day day, long currentTime, long currentDuration) {
+                return expireAfterCreate(date, day, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(LocalDate date, Day day, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    public Map<Long, CleanerDay> day(LocalDate date) {
+        return resident(date).schedules();
+    }
+
+    // Moves whenever the working calendar changes, which may change every day at once
+    public long calendarGeneration() {
+        calendar();
+        return calendarGeneration.get();
+    }
+
+    // Moves with every committed write seen for the date and every time the date is loaded again
+    public long version(LocalDate date) {
+        return resident(date).version();
+    }
+
+    public long busySlots(LocalDate date, Long cleanerId) {
+        return day(date).getOrDefault(cleanerId, CleanerDay.FREE).busyMask();
+    }
+
+    // Slots a new booking would need to find free
+    public static long requested(LocalDateTime start, LocalDateTime end) {
+        int startMinute = SlotMask.minuteOfDay(start.toLocalTime());
+        int endMinute = startMinute + (int) Duration.between(start, end).toMinutes();
+        return SlotMask.ofBooking(startMinute, endMinute);
+    }
+
+    // Applied after commit; days not yet resident pick the booking up when they are loaded
+    public void recordBooking(LocalDateTime start, LocalDateTime end, Collection<Long> cleanerIds) {
+        LocalDate date = start.toLocalDate();
+        afterCommit(() -> update(date, current -> {
+            Map<Long, CleanerDay> next = new HashMap<>(current);
+            for (Long cleanerId : cleanerIds) {
+                next.put(cleanerId, next.getOrDefault(cleanerId, CleanerDay.FREE).with(start, end));
+            }
+            return Map.copyOf(next);
+        }));
+    }
+
+    // Applied after commit. Removes the windows exactly, so a slot another booking shares stays busy
+    public void recordCancellation(Collection<CleanerBookingWindow> windows) {
+        Map<LocalDate, List<CleanerBookingWindow>> byDate = new HashMap<>();
+        for (CleanerBookingWindow w : windows) {
+            byDate.computeIfAbsent(w.startTime().toLocalDate(), d -> new ArrayList<>()).add(w);
+        }
+        afterCommit(() -> byDate.forEach((date, cancelled) -> update(date, current -> {
+            Map<Long, CleanerDay> next = new HashMap<>(current);
+            for (CleanerBookingWindow w : cancelled) {
+                next.computeIfPresent(w.cleanerId(), (id, day) -> day.without(w.startTime(), w.endTime()));
+            }
+            return Map.copyOf(next);
+        })));
+    }
+
+    // Virtual series occurrences in [from, to], one window per (occurrence, cleaner)
+    public List<CleanerBookingWindow> virtualWindows(LocalDate from, LocalDate to) {
+        List<CleanerBookingWindow> windows = new ArrayList<>();
+        for (SeriesCleanerRow row : seriesRepository.findVirtual(from, to)) {
+            Recurrence recurrence = new Recurrence(
+                    row.firstDate(), row.untilDate(), row.intervalWeeks(), row.daysMask());
+            LocalDate firstVirtual = row.materializedThrough().plusDays(1);
+            for (LocalDate date : recurrence.dates(firstVirtual.isAfter(from) ? firstVirtual : from, to)) {
+                LocalDateTime start = date.atTime(row.startTime());
+                windows.add(new CleanerBookingWindow(row.cleanerId(), start, start.plusHours(row.durationH())));
+            }
+        }
+        return windows;
+    }
+
+    // Merges each cleaner's off-duty time on date into schedules
+    public void addOffDuty(LocalDate date, Map<Long, CleanerDay> schedules) {
+        addOffDuty(calendar(), date, schedules);
+    }
+
+    private static void addOffDuty(WorkingCalendar calendar, LocalDate date, Map<Long, CleanerDay> schedules) {
+        calendar.offDuty(date).forEach((cleanerId, off) -> {
+            CleanerDay day = schedules.getOrDefault(cleanerId, CleanerDay.FREE);
+            for (int i = 0; i < off.length; i += 2) {
+                day = day.off(off[i], off[i + 1]);
+            }
+            schedules.put(cleanerId, day);
+        });
+    }
+
+    // Cleaners among cleanerIds not on duty for the whole of [start, end)
+    public List<Long> offDuty(Collection<Long> cleanerIds, LocalDateTime start, LocalDateTime end) {
+        WorkingCalendar current = calendar();
+        List<Long> off = new ArrayList<>();
+        for (Long cleanerId : cleanerIds) {
+            if (!current.isWorking(cleanerId, start, end)) {
+                off.add(cleanerId);
+            }
+        }
+        return off;
+    }
+
+    // Off-grid times can share a rounded slot with a neighbouring booking, so the day is reloaded lazily
+    public void evict(LocalDate date) {
+        afterCommit(() -> days.asMap().remove(date));
+    }
+
+    // The caller loads a missing day itself, after claiming it with a future that concurrent readers wait on
+    private Day resident(LocalDate date) {
+        calendar();
+        CompletableFuture<Day> day = days.getIfPresent(date);
+        if (day == null) {
+            CompletableFuture<Day> loading = new CompletableFuture<>();
+            day = days.asMap().putIfAbsent(date, loading);
+            if (day == null) {
+                day = loading;
+                try {
+                    long loadedAt = System.nanoTime();
+                    loading.complete(new Day(ReadRouting.onPrimary(() -> load(date)), clock.incrementAndGet(),
+                            loadedAt));
+                } catch (RuntimeException e) {
+                    // A failed future leaves the cache, so the next reader loads again
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return day.join();
+    }
+
+    // A day still loading gets the write chained onto its load
+    private void update(LocalDate date, UnaryOperator<Map<Long, CleanerDay>> change) {
+        days.asMap().computeIfPresent(date, (d, day) -> day.thenApply(
+                current -> new Day(change.apply(current.schedules()), clock.incrementAndGet(), current.loadedAt())));
+    }
+
+    private Map<Long, CleanerDay> load(LocalDate date) {
+        Map<Long, CleanerDay> schedules = new HashMap<>();
+        List<CleanerBookingWindow> windows = new ArrayList<>(bookingRepository.findCleanerWindows(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+        windows.addAll(virtualWindows(date, date));
+        for (CleanerBookingWindow window : windows) {
+            schedules.put(window.cleanerId(), schedules.getOrDefault(window.cleanerId(), CleanerDay.FREE)
+                    .with(window.startTime(), window.endTime()));
+        }
+        // resident() has just synced the calendar; syncing again here would drop the day being loaded
+        addOffDuty(calendar, date, schedules);
+        return Map.copyOf(schedules);
+    }
+
+    // A new calendar (an upload here, or a reload that found one made elsewhere) drops every resident day
+    private WorkingCalendar calendar() {
+        WorkingCalendar current = calendarCache.current();
+        if (current != calendar) {
+            synchronized (this) {
+                if (current != calendar) {
+                    days.synchronous().invalidateAll();
+                    calendar = current;
+                    calendarGeneration.incrementAndGet();
+                }
+            }
+        }
+        return current;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleBook;
+import com.justlife.cleaning.cleaning_service.rules.BookingRules;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+// Sweep-line enumeration of free start times over minute-of-day int arrays. One pass over bookings
+// sorted by start; a new booking must keep a 30-minute break on both sides of every existing one,
+// matching booking validation. Starts are aligned to the configured grid from opening time, and bookings
+// must end by closing time, both taken from the same compiled BookingRules that validation uses; the bean
+// carries the default rules and withRules gives the grid of another region's.
+@Component
+public class SlotEngine {
+
+    private static final Set<Integer> SUPPORTED_GRANULARITIES = Set.of(15, 30, 60);
+    private static final int DAY_START = SlotMask.minuteOfDay(SlotMask.START_OF_DAY);
+    private static final int DAY_END = SlotMask.minuteOfDay(SlotMask.END_OF_DAY);
+
+    private final int granularity;
+    private final int opens;
+    private final int closes;
+
+    public SlotEngine(int granularityMinutes) {
+        this(granularityMinutes, BookingRules.DEFAULT);
+    }
+
+    @Autowired
+    public SlotEngine(@Value("${availability.slot-granularity-minutes:30}") int granularityMinutes,
+                      BookingRuleBook ruleBook) {
+        this(granularityMinutes, ruleBook.defaults());
+    }
+
+    public SlotEngine(int granularityMinutes, BookingRules rules) {
+        if (!SUPPORTED_GRANULARITIES.contains(granularityMinutes)) {
+            throw new IllegalArgumentException("Slot granularity must be 15, 30 or 60 minutes");
+        }
+        this.granularity = granularityMinutes;
+        this.opens = rules.opensMinute();
+        this.closes = rules.closesMinute();
+    }
+
+    public SlotEngine withRules(BookingRules rules) {
+        return rules.opensMinute() == opens && rules.closesMinute() == closes
+                ? this
+                : new SlotEngine(granularity, rules);
+    }
+
+    public int granularity() {
+        return granularity;
+    }
+
+    // Upper bound on starts per day; size of the out buffer passed to freeStarts
+    public int maxStarts() {
+        return (DAY_END - DAY_START) / granularity + 1;
+    }
+
+    public int freeStarts(CleanerDay day, int durationMinutes, int[] out) {
+        return freeStarts(day.starts(), day.ends(), day.size(), durationMinutes, out);
+    }
+
+    // starts/ends hold count bookings sorted by start; writes valid starts to out and returns how many
+    public int freeStarts(int[] starts, int[] ends, int count, int durationMinutes, int[] out) {
+        int n = 0;
+        int cursor = opens;
+        for (int i = 0; i <= count; i++) {
+            int gapEnd = i < count ? Math.min(starts[i] - ScheduleIndex.BREAK_MINUTES, closes) : closes;
+            int offset = cursor - opens;
+            int t = opens + (offset + granularity - 1) / granularity * granularity;
+            for (; t + durationMinutes <= gapEnd; t += granularity) {
+                out[n++] = t;
+            }
+            if (i < count) {
+                cursor = Math.max(cursor, ends[i] + ScheduleIndex.BREAK_MINUTES);
+            }
+        }
+        return n;
+    }
+
+    public static List<LocalTime> toTimes(int[] minutes, int count) {
+        List<LocalTime> times = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            times.add(LocalTime.of(minutes[i] / 60, minutes[i] % 60));
+        }
+        return times;
+    }
+
+    // Sorts parallel start/end arrays by start without boxing
+    public static void sortByStart(int[] starts, int[] ends, int count) {
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = ((long) starts[i] << 32) | (ends[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        for (int i = 0; i < count; i++) {
+            starts[i] = (int) (packed[i] >>> 32);
+            ends[i] = (int) packed[i];
+        }
+    }
+}
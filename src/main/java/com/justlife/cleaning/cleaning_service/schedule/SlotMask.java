@@ -0,0 +1,78 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import java.time.LocalTime;
+
+// A working day (08:00-22:00) as 28 half-hour slots; bit i is the slot starting at 08:00 + 30*i minutes.
+public final class SlotMask {
+
+    public static final LocalTime START_OF_DAY = LocalTime.of(8, 0);
+    public static final LocalTime END_OF_DAY = LocalTime.of(22, 0);
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 28;
+    public static final long FULL_DAY = (1L << SLOTS_PER_DAY) - 1;
+    // The half hour after 22:00, where the break of a booking running past 21:30 falls. Off-duty time up to 22:00
+    // holds it (see CleanerDay.off), so only bookings that end by 21:30 fit before such a stretch.
+    public static final long AFTER_DAY = 1L << SLOTS_PER_DAY;
+
+    private static final int BREAK_SLOTS = ScheduleIndex.BREAK_MINUTES / SLOT_MINUTES;
+
+    private static final int DAY_START_MINUTE = START_OF_DAY.getHour() * 60;
+    private static final int DAY_END_MINUTE = END_OF_DAY.getHour() * 60;
+
+    private SlotMask() {
+    }
+
+    // Slots touched by [startMinute, endMinute) in minute-of-day, rounded outward and clipped to the working day
+    public static long ofMinutes(int startMinute, int endMinute) {
+        int from = Math.max(startMinute, DAY_START_MINUTE) - DAY_START_MINUTE;
+        int to = Math.min(endMinute, DAY_END_MINUTE) - DAY_START_MINUTE;
+        if (to <= from) {
+            return 0L;
+        }
+        int first = from / SLOT_MINUTES;
+        int last = (to + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        return ((1L << (last - first)) - 1) << first;
+    }
+
+    // Slots held by a booking over [startMinute, endMinute) and its trailing break
+    public static long ofBooking(int startMinute, int endMinute) {
+        int breakEnd = endMinute + ScheduleIndex.BREAK_MINUTES;
+        long mask = ofMinutes(startMinute, breakEnd);
+        return breakEnd > DAY_END_MINUTE ? mask | AFTER_DAY : mask;
+    }
+
+    // Free slots in gaps too short for a booking of minSlots: a gap before a booking must also hold the
+    // new booking's break slot, while one that runs to the end of the day need not
+    public static int strandedSlots(long busyMask, int minSlots) {
+        int stranded = 0;
+        int run = 0;
+        for (int i = 0; i < SLOTS_PER_DAY; i++) {
+            if ((busyMask & (1L << i)) == 0) {
+                run++;
+            } else {
+                stranded += run <= minSlots ? run : 0;
+                run = 0;
+            }
+        }
+        return stranded + (run < minSlots ? run : 0);
+    }
+
+    // Bit s set when a booking of durationSlots starting at slot s, plus its trailing break, misses every busy
+    // slot. A break running past 22:00 falls on AFTER_DAY, free unless off-duty time runs to the end of the day.
+    public static long freeStarts(long busyMask, int durationSlots) {
+        long free = ~busyMask;
+        long fit = free;
+        for (int k = 1; k < durationSlots + BREAK_SLOTS; k++) {
+            fit &= free >>> k;
+        }
+        return fit & ((1L << (SLOTS_PER_DAY - durationSlots + 1)) - 1);
+    }
+
+    public static LocalTime startOf(int slot) {
+        return START_OF_DAY.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    public static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,61 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Picks a same-vehicle team for a requested window from the in-memory schedule. Each free cleaner is
+// scored by the slots the booking would strand (gaps left too short for the shortest booking), then by
+// the free slots left, so bookings fill existing gaps tightly; a vehicle's score is its team's total.
+public final class TeamSelector {
+
+    public record Team(Long vehicleId, List<Long> cleanerIds) {}
+
+    private record Candidate(Long cleanerId, int stranded, int freeLeft) {}
+
+    private static final Comparator<Candidate> BEST_FIT = Comparator
+            .comparingInt(Candidate::stranded)
+            .thenComparingInt(Candidate::freeLeft)
+            .thenComparing(Candidate::cleanerId);
+
+    private TeamSelector() {
+    }
+
+    // null when no vehicle has teamSize cleaners free for the whole window
+    public static Team best(Map<Long, List<Long>> cleanersByVehicle, Map<Long, CleanerDay> schedules,
+                            long requested, int teamSize, int minBookingSlots) {
+        Team best = null;
+        long bestStranded = Long.MAX_VALUE;
+        long bestFreeLeft = Long.MAX_VALUE;
+
+        for (Map.Entry<Long, List<Long>> vehicle : cleanersByVehicle.entrySet()) {
+            List<Candidate> free = new ArrayList<>();
+            for (Long cleanerId : vehicle.getValue()) {
+                long busy = schedules.getOrDefault(cleanerId, CleanerDay.FREE).busyMask();
+                if ((busy & requested) == 0) {
+                    long after = busy | requested;
+                    free.add(new Candidate(cleanerId,
+                            SlotMask.strandedSlots(after, minBookingSlots) - SlotMask.strandedSlots(busy, minBookingSlots),
+                            Long.bitCount(~after & SlotMask.FULL_DAY)));
+                }
+            }
+            if (free.size() < teamSize) {
+                continue;
+            }
+
+            free.sort(BEST_FIT);
+            List<Candidate> team = free.subList(0, teamSize);
+            long stranded = team.stream().mapToLong(Candidate::stranded).sum();
+            long freeLeft = team.stream().mapToLong(Candidate::freeLeft).sum();
+            if (best == null || stranded < bestStranded
+                    || (stranded == bestStranded && (freeLeft < bestFreeLeft
+                        || (freeLeft == bestFreeLeft && vehicle.getKey() < best.vehicleId())))) {
+                best = new Team(vehicle.getKey(), team.stream().map(Candidate::cleanerId).toList());
+                bestStranded = stranded;
+                bestFreeLeft = freeLeft;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,37 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Start times at which a van has at least teamSize cleaners free together. Each cleaner's free starts are
+// one long (SlotMask.freeStarts); atLeast[i] holds the starts where at least i of the cleaners seen so far
+// are free, so a van costs teamSize AND/OR steps per cleaner and no per-start loop.
+public final class TeamWindows {
+
+    private TeamWindows() {
+    }
+
+    public static long starts(List<Long> cleanerIds, Map<Long, CleanerDay> schedules, int durationSlots,
+                              int teamSize) {
+        long[] atLeast = new long[teamSize + 1];
+        atLeast[0] = -1L;
+        for (Long cleanerId : cleanerIds) {
+            long free = SlotMask.freeStarts(schedules.getOrDefault(cleanerId, CleanerDay.FREE).busyMask(),
+                    durationSlots);
+            for (int i = teamSize; i > 0; i--) {
+                atLeast[i] |= atLeast[i - 1] & free;
+            }
+        }
+        return atLeast[teamSize];
+    }
+
+    public static List<LocalTime> toTimes(long starts) {
+        List<LocalTime> times = new ArrayList<>(Long.bitCount(starts));
+        for (long rest = starts; rest != 0; rest &= rest - 1) {
+            times.add(SlotMask.startOf(Long.numberOfTrailingZeros(rest)));
+        }
+        return times;
+    }
+}
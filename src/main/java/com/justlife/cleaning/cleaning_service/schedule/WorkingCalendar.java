@@ -0,0 +1,208 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import com.justlife.cleaning.cleaning_service.domain.CleanerAbsence;
+import com.justlife.cleaning.cleaning_service.domain.CleanerShift;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Every cleaner's shifts and absences as compact interval lists: per cleaner and weekday the merged
+// minute-of-day pairs of their shifts, per cleaner the merged epoch-minute pairs of their absences.
+// Cleaners with no shifts work whenever the booking rules allow. Immutable; see WorkingCalendarCache.
+public final class WorkingCalendar {
+
+    public static final WorkingCalendar EMPTY = new WorkingCalendar(Map.of(), Map.of());
+
+    private static final int DAY_MINUTES = 24 * 60;
+    private static final int DAY_START = SlotMask.minuteOfDay(SlotMask.START_OF_DAY);
+    private static final int DAY_END = SlotMask.minuteOfDay(SlotMask.END_OF_DAY);
+    // Shortest off-duty stretch a slot mask can hold without a break slot swallowing it (see CleanerDay.off)
+    private static final int MIN_OFF_MINUTES = 2 * ScheduleIndex.BREAK_MINUTES;
+    private static final int[] NONE = new int[0];
+
+    // cleanerId -> day of week (Monday = 0) -> [start0, end0, start1, end1, ...] in minute of day
+    private final Map<Long, int[][]> shifts;
+    // cleanerId -> [start0, end0, ...] in minutes since the epoch
+    private final Map<Long, long[]> absences;
+
+    private WorkingCalendar(Map<Long, int[][]> shifts, Map<Long, long[]> absences) {
+        this.shifts = shifts;
+        this.absences = absences;
+    }
+
+    public static WorkingCalendar of(Collection<CleanerShift> shifts, Collection<CleanerAbsence> absences) {
+        Map<Long, List<List<long[]>>> weeks = new HashMap<>();
+        for (CleanerShift shift : shifts) {
+            List<List<long[]>> week = weeks.computeIfAbsent(shift.getCleanerId(), id -> {
+                List<List<long[]>> days = new ArrayList<>();
+                for (int d = 0; d < 7; d++) {
+                    days.add(new ArrayList<>());
+                }
+                return days;
+            });
+            week.get(shift.getDayOfWeek().ordinal()).add(new long[]{
+                    SlotMask.minuteOfDay(shift.getStartTime()), SlotMask.minuteOfDay(shift.getEndTime())});
+        }
+        Map<Long, int[][]> shiftLists = new HashMap<>();
+        weeks.forEach((cleanerId, week) -> {
+            int[][] days = new int[7][];
+            for (int d = 0; d < 7; d++) {
+                days[d] = toInts(merge(week.get(d)));
+            }
+            shiftLists.put(cleanerId, days);
+        });
+
+        Map<Long, List<long[]>> away = new HashMap<>();
+        for (CleanerAbsence absence : absences) {
+            away.computeIfAbsent(absence.getCleanerId(), id -> new ArrayList<>())
+                    .add(new long[]{epochMinute(absence.getStartTime()), epochMinute(absence.getEndTime())});
+        }
+        Map<Long, long[]> absenceLists = new HashMap<>();
+        away.forEach((cleanerId, intervals) -> absenceLists.put(cleanerId, merge(intervals)));
+
+        return new WorkingCalendar(Map.copyOf(shiftLists), Map.copyOf(absenceLists));
+    }
+
+    // cleanerId -> the cleaner's off-duty time on date, for every cleaner with any
+    public Map<Long, int[]> offDuty(LocalDate date) {
+        Set<Long> cleanerIds = new HashSet<>(shifts.keySet());
+        cleanerIds.addAll(absences.keySet());
+        Map<Long, int[]> off = new HashMap<>();
+        for (Long cleanerId : cleanerIds) {
+            int[] intervals = offDuty(cleanerId, date);
+            if (intervals.length > 0) {
+                off.put(cleanerId, intervals);
+            }
+        }
+        return off;
+    }
+
+    // Sorted, disjoint minute-of-day pairs within the working day (08:00-22:00) when the cleaner is off.
+    // A stretch shorter than an hour is widened to one, so validation agrees with the slot masks; one at either
+    // end of the day is left as it is, since the masks need no break beyond the day.
+    public int[] offDuty(Long cleanerId, LocalDate date) {
+        List<long[]> off = new ArrayList<>();
+        int[][] week = shifts.get(cleanerId);
+        if (week != null) {
+            int[] on = week[date.getDayOfWeek().ordinal()];
+            long cursor = 0;
+            for (int i = 0; i < on.length; i += 2) {
+                if (on[i] > cursor) {
+                    off.add(new long[]{cursor, on[i]});
+                }
+                cursor = on[i + 1];
+            }
+            if (cursor < DAY_MINUTES) {
+                off.add(new long[]{cursor, DAY_MINUTES});
+            }
+        }
+        long[] absent = absences.get(cleanerId);
+        if (absent != null) {
+            long dayStart = date.toEpochDay() * DAY_MINUTES;
+            for (int i = 0; i < absent.length; i += 2) {
+                long from = Math.max(absent[i], dayStart) - dayStart;
+                long to = Math.min(absent[i + 1], dayStart + DAY_MINUTES) - dayStart;
+                if (to > from) {
+                    off.add(new long[]{from, to});
+                }
+            }
+        }
+
+        List<long[]> working = new ArrayList<>();
+        long[] merged = merge(off);
+        for (int i = 0; i < merged.length; i += 2) {
+            long from = Math.max(merged[i], DAY_START);
+            long to = Math.min(merged[i + 1], DAY_END);
+            if (to <= from) {
+                continue;
+            }
+            if (from > DAY_START && to < DAY_END && to - from < MIN_OFF_MINUTES) {
+                to = Math.min(from + MIN_OFF_MINUTES, DAY_END);
+                from = to - MIN_OFF_MINUTES;
+            }
+            working.add(new long[]{from, to});
+        }
+        return working.isEmpty() ? NONE : toInts(merge(working));
+    }
+
+    // Whether the cleaner is on duty for the whole of [start, end), which lies within one day
+    public boolean isWorking(Long cleanerId, LocalDateTime start, LocalDateTime end) {
+        if (!shifts.containsKey(cleanerId) && !absences.containsKey(cleanerId)) {
+            return true;
+        }
+        int[] off = offDuty(cleanerId, start.toLocalDate());
+        int from = SlotMask.minuteOfDay(start.toLocalTime());
+        int to = from + (int) Duration.between(start, end).toMinutes();
+        for (int i = 0; i < off.length; i += 2) {
+            if (off[i] < to && off[i + 1] > from) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sorts [start, end) pairs by start and joins those that overlap or touch, flattened
+    private static long[] merge(List<long[]> intervals) {
+        intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+        long[] merged = new long[intervals.size() * 2];
+        int n = 0;
+        for (long[] interval : intervals) {
+            if (n > 0 && interval[0] <= merged[n - 1]) {
+                merged[n - 1] = Math.max(merged[n - 1], interval[1]);
+            } else {
+                merged[n++] = interval[0];
+                merged[n++] = interval[1];
+            }
+        }
+        return Arrays.copyOf(merged, n);
+    }
+
+    private static int[] toInts(long[] values) {
+        int[] ints = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ints[i] = (int) values[i];
+        }
+        return ints;
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    // Same intervals for the same cleaners, so a reload that changed nothing can keep the schedules built
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof WorkingCalendar other)
+                || !shifts.keySet().equals(other.shifts.keySet())
+                || !absences.keySet().equals(other.absences.keySet())) {
+            return false;
+        }
+        for (Map.Entry<Long, int[][]> week : shifts.entrySet()) {
+            if (!Arrays.deepEquals(week.getValue(), other.shifts.get(week.getKey()))) {
+                return false;
+            }
+        }
+        for (Map.Entry<Long, long[]> absent : absences.entrySet()) {
+            if (!Arrays.equals(absent.getValue(), other.absences.get(absent.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * shifts.keySet().hashCode() + absences.keySet().hashCode();
+    }
+}
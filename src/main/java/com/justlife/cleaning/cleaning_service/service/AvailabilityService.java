@@ -1,98 +1,238 @@
 package com.justlife.cleaning.cleaning_service.service;
 
-import com.justlife.cleaning.cleaning_service.domain.Booking;
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.Versioned;
 import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.dto.AvailabilitySlot;
+import com.justlife.cleaning.cleaning_service.dto.DailyAvailability;
+import com.justlife.cleaning.cleaning_service.dto.TeamAvailability;
 import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
-import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow;
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleBook;
+import com.justlife.cleaning.cleaning_service.rules.BookingRules;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerDay;
+import com.justlife.cleaning.cleaning_service.schedule.PartitionExecutor;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import com.justlife.cleaning.cleaning_service.schedule.SlotMask;
+import com.justlife.cleaning.cleaning_service.schedule.TeamWindows;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AvailabilityService {
 
-    private final CleanerRepository cleanerRepository;
+    private final ReferenceDataCache referenceData;
     private final BookingRepository bookingRepository;
+    private final ScheduleIndex scheduleIndex;
+    private final SlotEngine slotEngine;
+    private final AvailabilityResultCache resultCache;
+    private final PartitionExecutor partitionExecutor;
+    private final BookingRuleBook ruleBook;
 
-    private static final LocalTime START_OF_DAY = LocalTime.of(8, 0);
-    private static final LocalTime END_OF_DAY = LocalTime.of(22, 0);
-    private static final int BREAK_MINUTES = 30;
+    private record DailyKey(LocalDate date, int durationHours) {}
 
-    public Map<Cleaner, List<LocalTime>> getAvailableSlots(LocalDate date, int durationHours) {
-        List<Cleaner> allCleaners = cleanerRepository.findAll();
-        Map<Cleaner, List<LocalTime>> result = new HashMap<>();
-
-        for (Cleaner cleaner : allCleaners) {
-            List<Booking> bookings = getBookingsForCleanerOnDate(cleaner, date);
-            List<LocalTime> availableSlots = calculateAvailableSlots(bookings, durationHours, date);
-            if (!availableSlots.isEmpty()) {
-                result.put(cleaner, availableSlots);
-            }
-        }
+    private record SlotKey(LocalDate date, LocalTime startTime, int durationHours) {}
 
-        return result;
+    private record TeamKey(LocalDate date, int durationHours, int teamSize) {}
+
+    // Matches the ETag of the cached answers for the date until a booking on it commits
+    public String availabilityTag(LocalDate date) {
+        return resultCache.etag(date);
     }
 
-    private List<Booking> getBookingsForCleanerOnDate(Cleaner cleaner, LocalDate date) {
-        LocalDateTime from = date.atTime(START_OF_DAY);
-        LocalDateTime to = date.atTime(END_OF_DAY);
-        return bookingRepository.findByStartTimeBetween(from, to)
+    @Timed(value = "availability.daily", histogram = true)
+    public Versioned<List<AvailabilitySlot>> getDailyAvailability(LocalDate date, int durationHours) {
+        return resultCache.get(new DailyKey(date, durationHours), date, () -> getAvailableSlots(date, durationHours)
+                .entrySet()
                 .stream()
-                .filter(b -> b.getCleaners().contains(cleaner))
-                .toList();
+                .map(e -> new AvailabilitySlot(e.getKey().getId(), e.getValue()))
+                .toList());
     }
 
-    private List<LocalTime> calculateAvailableSlots(List<Booking> bookings, int durationHours, LocalDate date) {
-        List<Booking> bookingsCopy = new ArrayList<>(bookings);
-        bookingsCopy.sort(Comparator.comparing(Booking::getStartTime));
-
-        List<LocalTime> availableSlots = new ArrayList<>();
-        LocalTime cursor = START_OF_DAY;
-        int durationMinutes = durationHours * 60;
-
-        for (Booking booking : bookings) {
-            LocalTime bookingStart = booking.getStartTime().toLocalTime();
-            long minutesFree = java.time.Duration.between(cursor, bookingStart).toMinutes();
+    @Timed(value = "availability.slot", histogram = true)
+    public Versioned<List<Long>> getCleanerIdsForSlot(LocalDate date, LocalTime startTime, int durationHours) {
+        return resultCache.get(new SlotKey(date, startTime, durationHours), date,
+                () -> getAvailableCleanersForSlot(date, startTime, durationHours)
+                        .stream()
+                        .map(Cleaner::getId)
+                        .toList());
+    }
 
-            if (minutesFree >= durationMinutes) {
-                availableSlots.add(cursor);
+    // Vans in id order; vans with no start for a team of that size are left out
+    @Timed(value = "availability.teams", histogram = true)
+    public Versioned<List<TeamAvailability>> getTeamAvailability(LocalDate date, int durationHours, int teamSize) {
+        return resultCache.get(new TeamKey(date, durationHours, teamSize), date, () -> {
+            List<TeamAvailability> teams = new ArrayList<>();
+            BookingRules rules = rules();
+            if (!rules.bookable(date, durationHours)) {
+                return teams;
             }
-            cursor = booking.getEndTime().toLocalTime().plusMinutes(BREAK_MINUTES);
+            Map<Long, CleanerDay> schedules = scheduleIndex.day(date);
+            int durationSlots = durationHours * 60 / SlotMask.SLOT_MINUTES;
+            long withinHours = rules.startMask(durationSlots);
+            for (Map.Entry<Long, List<Long>> van : new TreeMap<>(referenceData.cleanersByVehicle()).entrySet()) {
+                long starts = TeamWindows.starts(van.getValue(), schedules, durationSlots, teamSize) & withinHours;
+                if (starts != 0) {
+                    teams.add(new TeamAvailability(van.getKey(), TeamWindows.toTimes(starts)));
+                }
+            }
+            return teams;
+        });
+    }
+
+    // Vehicles are independent partitions, computed by partitionExecutor each with its own buffer and
+    // merged in vehicle order, so the answer does not depend on which partition finishes first
+    public Map<Cleaner, List<LocalTime>> getAvailableSlots(LocalDate date, int durationHours) {
+        Map<Cleaner, List<LocalTime>> result = new LinkedHashMap<>();
+        BookingRules rules = rules();
+        if (!rules.bookable(date, durationHours)) {
+            return result;
         }
+        Map<Long, CleanerDay> schedules = scheduleIndex.day(date);
+        int durationMinutes = durationHours * 60;
+        // Partitions may run on threads bound to no region, so they get the region's grid rather than look it up
+        SlotEngine engine = slotEngine.withRules(rules);
 
-        // Check slot after last booking
-        if (cursor.plusMinutes(durationMinutes).isBefore(END_OF_DAY.plusSeconds(1))) {
-            availableSlots.add(cursor);
+        for (Map<Cleaner, List<LocalTime>> partition : partitionExecutor.map(referenceData.cleanersPerVehicle(),
+                cleaners -> freeStartsByCleaner(engine, cleaners, schedules, durationMinutes))) {
+            result.putAll(partition);
         }
 
-        return availableSlots;
+        return result;
+    }
+
+    private static Map<Cleaner, List<LocalTime>> freeStartsByCleaner(SlotEngine engine, List<Cleaner> cleaners,
+                                                                     Map<Long, CleanerDay> schedules,
+                                                                     int durationMinutes) {
+        int[] starts = new int[engine.maxStarts()];
+        Map<Cleaner, List<LocalTime>> result = new LinkedHashMap<>();
+        for (Cleaner cleaner : cleaners) {
+            CleanerDay day = schedules.getOrDefault(cleaner.getId(), CleanerDay.FREE);
+            int count = engine.freeStarts(day, durationMinutes, starts);
+            if (count > 0) {
+                result.put(cleaner, SlotEngine.toTimes(starts, count));
+            }
+        }
+        return result;
     }
 
     public List<Cleaner> getAvailableCleanersForSlot(LocalDate date, LocalTime startTime, int durationHours) {
+        if (rules().checkSlot(date, startTime, durationHours) != null) {
+            return List.of();
+        }
         LocalDateTime start = date.atTime(startTime);
-        LocalDateTime end = start.plusHours(durationHours);
-        List<Cleaner> allCleaners = cleanerRepository.findAll();
+        long requested = ScheduleIndex.requested(start, start.plusHours(durationHours));
+        Map<Long, CleanerDay> schedules = scheduleIndex.day(date);
 
         List<Cleaner> available = new ArrayList<>();
-        for (Cleaner cleaner : allCleaners) {
-            boolean hasOverlap = bookingRepository.hasOverlap(
-                    cleaner,
-                    start,
-                    end,
-                    null
-            );
-
-            if (!hasOverlap) {
-                available.add(cleaner);
-            }
+        for (List<Cleaner> partition : partitionExecutor.map(referenceData.cleanersPerVehicle(),
+                cleaners -> freeCleaners(cleaners, schedules, requested))) {
+            available.addAll(partition);
         }
 
         return available;
     }
 
-}
\ No newline at end of file
+    private static List<Cleaner> freeCleaners(List<Cleaner> cleaners, Map<Long, CleanerDay> schedules,
+                                              long requested) {
+        List<Cleaner> free = new ArrayList<>();
+        for (Cleaner cleaner : cleaners) {
+            if ((schedules.getOrDefault(cleaner.getId(), CleanerDay.FREE).busyMask() & requested) == 0) {
+                free.add(cleaner);
+            }
+        }
+        return free;
+    }
+
+    // Walks the window's bookings once in start order and hands each finished day to the sink, with the
+    // virtual series occurrences and off-duty time of that day added
+    @Transactional(readOnly = true)
+    @Timed(value = "availability.range", histogram = true)
+    public void streamAvailableSlots(LocalDate from, LocalDate to, int durationHours,
+                                     Consumer<DailyAvailability> sink) {
+        // Caches fill from the primary only before this transaction first reads (see ReadRouting)
+        List<Cleaner> allCleaners = referenceData.allCleaners();
+        scheduleIndex.calendarGeneration();
+        int durationMinutes = durationHours * 60;
+        BookingRules rules = rules();
+        SlotEngine engine = slotEngine.withRules(rules);
+        int[] starts = new int[engine.maxStarts()];
+        Map<Long, CleanerDay> schedules = new HashMap<>();
+        Map<LocalDate, List<CleanerBookingWindow>> virtual = new HashMap<>();
+        for (CleanerBookingWindow window : scheduleIndex.virtualWindows(from, to)) {
+            virtual.computeIfAbsent(window.startTime().toLocalDate(), d -> new ArrayList<>()).add(window);
+        }
+        LocalDate day = from;
+
+        try (Stream<CleanerBookingWindow> windows = bookingRepository.streamCleanerWindows(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            Iterator<CleanerBookingWindow> it = windows.iterator();
+            while (it.hasNext()) {
+                CleanerBookingWindow window = it.next();
+                LocalDate bookingDay = window.startTime().toLocalDate();
+                if (bookingDay.isBefore(from)) {
+                    continue;
+                }
+                while (day.isBefore(bookingDay)) {
+                    addWindows(schedules, virtual.getOrDefault(day, List.of()));
+                    scheduleIndex.addOffDuty(day, schedules);
+                    sink.accept(dailyAvailability(rules, engine, day, allCleaners, schedules, durationMinutes, starts));
+                    schedules.clear();
+                    day = day.plusDays(1);
+                }
+                schedules.put(window.cleanerId(), schedules.getOrDefault(window.cleanerId(), CleanerDay.FREE)
+                        .with(window.startTime(), window.endTime()));
+            }
+        }
+
+        while (!day.isAfter(to)) {
+            addWindows(schedules, virtual.getOrDefault(day, List.of()));
+            scheduleIndex.addOffDuty(day, schedules);
+            sink.accept(dailyAvailability(rules, engine, day, allCleaners, schedules, durationMinutes, starts));
+            schedules.clear();
+            day = day.plusDays(1);
+        }
+    }
+
+    private static void addWindows(Map<Long, CleanerDay> schedules, List<CleanerBookingWindow> windows) {
+        for (CleanerBookingWindow window : windows) {
+            schedules.put(window.cleanerId(), schedules.getOrDefault(window.cleanerId(), CleanerDay.FREE)
+                    .with(window.startTime(), window.endTime()));
+        }
+    }
+
+    private static DailyAvailability dailyAvailability(BookingRules rules, SlotEngine engine, LocalDate date,
+                                                       List<Cleaner> cleaners, Map<Long, CleanerDay> schedules,
+                                                       int durationMinutes, int[] starts) {
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        if (!rules.bookable(date, durationMinutes / 60)) {
+            return new DailyAvailability(date, slots);
+        }
+        for (Cleaner cleaner : cleaners) {
+            CleanerDay day = schedules.getOrDefault(cleaner.getId(), CleanerDay.FREE);
+            int count = engine.freeStarts(day, durationMinutes, starts);
+            if (count > 0) {
+                slots.add(new AvailabilitySlot(cleaner.getId(), SlotEngine.toTimes(starts, count)));
+            }
+        }
+        return new DailyAvailability(date, slots);
+    }
+
+    // The rules of the region the caller works for
+    private BookingRules rules() {
+        return ruleBook.forRegion(RegionContext.current());
+    }
+}
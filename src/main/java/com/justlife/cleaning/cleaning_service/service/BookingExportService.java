@@ -0,0 +1,31 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.repository.BookingListRow;
+import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BookingExportService {
+
+    private final BookingRepository bookingRepository;
+
+    // Rows arrive through a forward-only cursor as projections, never entities, and go to the sink one by
+    // one, so memory stays flat whatever the size of the range
+    @Transactional(readOnly = true)
+    @Timed(value = "booking.export", histogram = true)
+    public void export(LocalDate from, LocalDate to, Consumer<BookingResponse> sink) {
+        try (Stream<BookingListRow> rows = bookingRepository.streamForExport(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            rows.map(BookingService::toDto).forEach(sink);
+        }
+    }
+}
@@ -1,14 +1,31 @@
 package com.justlife.cleaning.cleaning_service.service;
 
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
 import com.justlife.cleaning.cleaning_service.domain.*;
 import com.justlife.cleaning.cleaning_service.exception.BookingValidationException;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
 import com.justlife.cleaning.cleaning_service.repository.*;
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleBook;
+import com.justlife.cleaning.cleaning_service.rules.BookingRules;
 import com.justlife.cleaning.cleaning_service.dto.*;
-import jakarta.transaction.Transactional;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.Recurrence;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotMask;
+import com.justlife.cleaning.cleaning_service.schedule.TeamSelector;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 
 @Service
@@ -17,39 +34,376 @@ public class BookingService {
 
     private final BookingRepository  bookingRepo;
     private final CleanerRepository  cleanerRepo;
+    private final VehicleRepository  vehicleRepo;
+    private final ScheduleIndex      scheduleIndex;
+    private final CleanerLockManager lockManager;
+    private final ReferenceDataCache referenceData;
+    private final BookingOutbox      outbox;
+    private final BookingSeriesRepository seriesRepo;
+    private final BookingRuleBook    ruleBook;
 
-    private static final LocalTime START_OF_DAY = LocalTime.of(8, 0);
-    private static final LocalTime END_OF_DAY   = LocalTime.of(22, 0);
-    private static final List<Integer> ALLOWED_DURATIONS = List.of(2, 4);
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_SERIES_DAYS = 366;
+    // Series occurrences up to this far ahead are booking rows; later ones stay virtual
+    private static final int SERIES_WINDOW_WEEKS = 4;
+    // Not part of the configurable rules: the booking_cleaner exclusion constraint (V2) encodes it too
+    private static final int BREAK_MINUTES = ScheduleIndex.BREAK_MINUTES;
 
     // create
     @Transactional
+    @Timed(value = "booking.create", histogram = true)
     public BookingResponse create(BookingCreateRequest req) {
-        validateBusinessRules(req.date(), req.startTime(), req.durationHours(), req.cleanerIds());
-
-        List<Cleaner> cleaners   = cleanerRepo.findAllById(req.cleanerIds());
-        Vehicle       vehicle    = cleaners.get(0).getVehicle();            // same vehicle validated
-        LocalDateTime start      = req.date().atTime(req.startTime());
-        LocalDateTime end        = start.plusHours(req.durationHours());
+        ValidatedBooking v = validateBusinessRules(req.date(), req.startTime(), req.durationHours(), req.cleanerIds());
 
         Booking booking = Booking.builder()
-                .startTime(start)
-                .endTime(end)
+                .startTime(v.start())
+                .endTime(v.end())
                 .durationH(req.durationHours())
                 .customer(req.customer())
-                .vehicle(vehicle)
-                .cleaners(cleaners)
+                .vehicle(v.vehicle())
+                .cleaners(v.cleaners())
                 .build();
 
         Booking saved = bookingRepo.save(booking);
-        return toDto(saved);
+        scheduleIndex.recordBooking(v.start(), v.end(), req.cleanerIds());
+        BookingResponse created = toDto(saved);
+        outbox.created(created);
+        return created;
+    }
+
+    // batch create: every item is validated against one schedule read, items accepted earlier in the
+    // batch included, and the accepted ones are written in JDBC batches
+    @Transactional
+    @Timed(value = "booking.create.batch", histogram = true)
+    public BookingBatchResponse createBatch(List<BookingCreateRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new BookingValidationException("batch-size", "Batch must contain 1-" + MAX_BATCH_SIZE + " bookings");
+        }
+
+        String[] errors = new String[requests.size()];
+        Long[] vehicleIds = new Long[requests.size()];
+        Set<Long> cleanerIds = new HashSet<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (int i = 0; i < requests.size(); i++) {
+            BookingCreateRequest req = requests.get(i);
+            try {
+                vehicleIds[i] = checkRequestRules(req.date(), req.startTime(), req.durationHours(), req.cleanerIds());
+            } catch (BookingValidationException e) {
+                errors[i] = e.getMessage();
+                Metrics.counter("booking.batch.rejections", "rule", e.getRule()).increment();
+                continue;
+            }
+            cleanerIds.addAll(req.cleanerIds());
+            first = first == null || req.date().isBefore(first) ? req.date() : first;
+            last = last == null || req.date().isAfter(last) ? req.date() : last;
+        }
+
+        // Existing bookings of every cleaner in the batch, read once under their locks
+        Map<Long, List<CleanerBookingWindow>> schedule = new HashMap<>();
+        if (!cleanerIds.isEmpty()) {
+            lockManager.lockUntilCompletion(cleanerIds);
+            List<CleanerBookingWindow> windows = new ArrayList<>(bookingRepo.findCleanerWindowsOf(
+                    cleanerIds, first.atStartOfDay(), last.plusDays(1).atStartOfDay()));
+            windows.addAll(scheduleIndex.virtualWindows(first, last));
+            for (CleanerBookingWindow w : windows) {
+                if (cleanerIds.contains(w.cleanerId())) {
+                    schedule.computeIfAbsent(w.cleanerId(), k -> new ArrayList<>()).add(w);
+                }
+            }
+        }
+
+        Booking[] bookings = new Booking[requests.size()];
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            BookingCreateRequest req = requests.get(i);
+            LocalDateTime start = req.date().atTime(req.startTime());
+            LocalDateTime end   = start.plusHours(req.durationHours());
+
+            List<Long> busy = new ArrayList<>();
+            for (Long id : req.cleanerIds()) {
+                for (CleanerBookingWindow w : schedule.getOrDefault(id, List.of())) {
+                    if (overlapsWithBreak(w, start, end)) {
+                        busy.add(id);
+                        break;
+                    }
+                }
+            }
+            if (!busy.isEmpty()) {
+                errors[i] = busyMessage(busy);
+                Metrics.counter("booking.batch.rejections", "rule", "cleaner-busy").increment();
+                continue;
+            }
+
+            for (Long id : req.cleanerIds()) {
+                schedule.computeIfAbsent(id, k -> new ArrayList<>()).add(new CleanerBookingWindow(id, start, end));
+            }
+            bookings[i] = newBooking(start, end, req.durationHours(), req.customer(), vehicleIds[i], req.cleanerIds());
+            accepted.add(bookings[i]);
+        }
+
+        bookingRepo.saveAll(accepted);
+        accepted.stream().map(b -> b.getStartTime().toLocalDate()).distinct().forEach(scheduleIndex::evict);
+
+        List<BookingBatchItemResult> results = new ArrayList<>(requests.size());
+        List<BookingResponse> created = new ArrayList<>(accepted.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BookingResponse booking = bookings[i] == null ? null : toDto(bookings[i]);
+            if (booking != null) {
+                created.add(booking);
+            }
+            results.add(new BookingBatchItemResult(i, booking, errors[i]));
+        }
+        outbox.createdAll(created);
+        return new BookingBatchResponse(accepted.size(), requests.size() - accepted.size(), results);
+    }
+
+    // auto-assign: the server picks a same-vehicle team from the in-memory schedule and books it
+    @Transactional
+    @Timed(value = "booking.create.auto", histogram = true)
+    public BookingResponse createAuto(BookingAutoRequest req) {
+        BookingRules rules = rules();
+        enforce(rules.check(req.date(), req.startTime(), req.durationHours(), req.teamSize()));
+        int minBookingSlots = rules.minDurationHours() * 60 / SlotMask.SLOT_MINUTES;
+        LocalDateTime start = req.date().atTime(req.startTime());
+        LocalDateTime end   = start.plusHours(req.durationHours());
+        long requested = ScheduleIndex.requested(start, end);
+
+        Map<Long, List<Long>> cleanersByVehicle = referenceData.cleanersByVehicle();
+        TeamSelector.Team team = TeamSelector.best(
+                cleanersByVehicle, scheduleIndex.day(req.date()), requested, req.teamSize(), minBookingSlots);
+        if (team == null) {
+            throw noTeam(req.teamSize());
+        }
+
+        // Lock the whole van and choose again: bookings committed before the lock are in the index by now
+        List<Long> vanCleaners = cleanersByVehicle.get(team.vehicleId());
+        lockManager.lockUntilCompletion(vanCleaners);
+        team = TeamSelector.best(Map.of(team.vehicleId(), vanCleaners), scheduleIndex.day(req.date()),
+                requested, req.teamSize(), minBookingSlots);
+        if (team == null) {
+            throw noTeam(req.teamSize());
+        }
+
+        // Written by another instance since the index loaded the day
+        List<Long> busy = new ArrayList<>(bookingRepo.findBusyCleanerIds(
+                team.cleanerIds(), start.minusMinutes(BREAK_MINUTES), end.plusMinutes(BREAK_MINUTES), null));
+        addBusyInSeries(busy, team.cleanerIds(), start, end);
+        if (!busy.isEmpty()) {
+            throw new BookingValidationException("cleaner-busy", busyMessage(busy));
+        }
+
+        Booking saved = bookingRepo.save(
+                newBooking(start, end, req.durationHours(), req.customer(), team.vehicleId(), team.cleanerIds()));
+        scheduleIndex.recordBooking(start, end, team.cleanerIds());
+        BookingResponse created = toDto(saved);
+        outbox.created(created);
+        return created;
+    }
+
+    // recurring: every occurrence up to untilDate is checked in one pass against a single read of the
+    // cleaners' bookings and the virtual occurrences of other series; only the rolling window is written
+    @Transactional
+    @Timed(value = "booking.create.series", histogram = true)
+    public BookingSeriesResponse createSeries(BookingSeriesRequest req) {
+        Recurrence recurrence = recurrenceOf(req);
+        for (int day = 0; day < 7; day++) {
+            if ((recurrence.daysMask() >>> day & 1) == 1) {
+                LocalDate date = req.firstDate().with(TemporalAdjusters.nextOrSame(DayOfWeek.of(day + 1)));
+                enforce(rules().checkSlot(date, req.startTime(), req.durationHours()));
+            }
+        }
+        List<LocalDate> dates = recurrence.dates(req.firstDate(), req.untilDate());
+        if (dates.isEmpty()) {
+            throw new BookingValidationException("recurrence", "Series has no occurrences");
+        }
+        Long vehicleId = checkRequestRules(dates.get(0), req.startTime(), req.durationHours(), req.cleanerIds());
+        Set<Long> off = new TreeSet<>();
+        SortedSet<LocalDate> offDates = offDutyDates(
+                req.cleanerIds(), dates, req.startTime(), req.durationHours(), off);
+        if (!offDates.isEmpty()) {
+            throw new BookingValidationException("cleaner-off-duty",
+                    offDutyMessage(List.copyOf(off)) + onDates(offDates));
+        }
+        LocalDate first = dates.get(0);
+        LocalDate last = dates.get(dates.size() - 1);
+
+        lockManager.lockUntilCompletion(req.cleanerIds());
+        List<CleanerBookingWindow> windows = new ArrayList<>(bookingRepo.findCleanerWindowsOf(
+                req.cleanerIds(), first.atStartOfDay(), last.plusDays(1).atStartOfDay()));
+        windows.addAll(scheduleIndex.virtualWindows(first, last));
+        Set<Long> busy = new TreeSet<>();
+        SortedSet<LocalDate> conflicts = conflicts(
+                req.cleanerIds(), dates, req.startTime(), req.durationHours(), windows, busy);
+        if (!conflicts.isEmpty()) {
+            throw new BookingValidationException("cleaner-busy", busyMessage(List.copyOf(busy)) + onDates(conflicts));
+        }
+
+        BookingSeries series = seriesRepo.save(BookingSeries.builder()
+                .customer(req.customer())
+                .vehicle(vehicleRepo.getReferenceById(vehicleId))
+                .cleaners(cleanerReferences(req.cleanerIds()))
+                .firstDate(recurrence.firstDate())
+                .untilDate(recurrence.untilDate())
+                .startTime(req.startTime())
+                .durationH(req.durationHours())
+                .intervalWeeks(recurrence.intervalWeeks())
+                .daysMask(recurrence.daysMask())
+                .materializedThrough(req.firstDate().minusDays(1))
+                .build());
+
+        LocalDate through = materializeThrough(series);
+        List<BookingResponse> created = through.isAfter(series.getMaterializedThrough())
+                ? materialize(series, dates.stream().filter(d -> !d.isAfter(through)).toList(), through)
+                : List.of();
+        dates.forEach(scheduleIndex::evict);
+        return new BookingSeriesResponse(series.getId(), dates.size(), series.getMaterializedThrough(), created);
+    }
+
+    // Series with occurrences that have entered the rolling window but are still virtual
+    public List<Long> seriesDueForMaterialization() {
+        return seriesRepo.findDueIds(LocalDate.now().plusWeeks(SERIES_WINDOW_WEEKS));
+    }
+
+    // Writes one series' occurrences up to the rolling window. Every booking path checks virtual occurrences,
+    // so they should be free; one taken anyway (a write that raced the series on another instance, or a cleaner
+    // since rostered off) is skipped rather than double-booked.
+    @Transactional
+    @Timed(value = "booking.series.materialize", histogram = true)
+    public List<BookingResponse> materializeSeries(Long seriesId) {
+        BookingSeries series = seriesRepo.lockById(seriesId)
+                .orElseThrow(() -> new BookingValidationException("not-found", "Series not found"));
+        LocalDate through = materializeThrough(series);
+        if (!through.isAfter(series.getMaterializedThrough())) {
+            return List.of();
+        }
+        List<LocalDate> dates = recurrenceOf(series).dates(series.getMaterializedThrough().plusDays(1), through);
+        List<Long> cleanerIds = series.getCleaners().stream().map(Cleaner::getId).toList();
+
+        List<LocalDate> free = dates;
+        if (!dates.isEmpty()) {
+            lockManager.lockUntilCompletion(cleanerIds);
+            SortedSet<LocalDate> taken = conflicts(cleanerIds, dates, series.getStartTime(), series.getDurationH(),
+                    bookingRepo.findCleanerWindowsOf(cleanerIds, dates.get(0).atStartOfDay(),
+                            dates.get(dates.size() - 1).plusDays(1).atStartOfDay()),
+                    new HashSet<>());
+            taken.addAll(offDutyDates(
+                    cleanerIds, dates, series.getStartTime(), series.getDurationH(), new HashSet<>()));
+            if (!taken.isEmpty()) {
+                Metrics.counter("booking.series.skipped").increment(taken.size());
+                free = dates.stream().filter(d -> !taken.contains(d)).toList();
+            }
+        }
+        List<BookingResponse> created = materialize(series, free, through);
+        dates.forEach(scheduleIndex::evict);
+        return created;
+    }
+
+    private List<BookingResponse> materialize(BookingSeries series, List<LocalDate> dates, LocalDate through) {
+        List<Long> cleanerIds = series.getCleaners().stream().map(Cleaner::getId).toList();
+        List<Booking> bookings = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            LocalDateTime start = date.atTime(series.getStartTime());
+            Booking booking = newBooking(start, start.plusHours(series.getDurationH()), series.getDurationH(),
+                    series.getCustomer(), series.getVehicle().getId(), cleanerIds);
+            booking.setSeries(series);
+            bookings.add(booking);
+        }
+        bookingRepo.saveAll(bookings);
+        series.setMaterializedThrough(through);
+
+        List<BookingResponse> created = bookings.stream().map(this::toDto).toList();
+        outbox.createdAll(created);
+        return created;
+    }
+
+    // End of the rolling window, capped at the series' last date
+    private static LocalDate materializeThrough(BookingSeries series) {
+        LocalDate windowEnd = LocalDate.now().plusWeeks(SERIES_WINDOW_WEEKS);
+        return windowEnd.isBefore(series.getUntilDate()) ? windowEnd : series.getUntilDate();
+    }
+
+    private static Recurrence recurrenceOf(BookingSeriesRequest req) {
+        int intervalWeeks = req.intervalWeeks() == null ? 1 : req.intervalWeeks();
+        if (intervalWeeks != 1 && intervalWeeks != 2) {
+            throw new BookingValidationException("recurrence", "Series must repeat every 1 or 2 weeks");
+        }
+        if (req.untilDate().isBefore(req.firstDate())
+                || ChronoUnit.DAYS.between(req.firstDate(), req.untilDate()) >= MAX_SERIES_DAYS) {
+            throw new BookingValidationException("recurrence",
+                    "Series must end on or after its first date and within " + MAX_SERIES_DAYS + " days");
+        }
+        List<DayOfWeek> days = req.daysOfWeek() == null || req.daysOfWeek().isEmpty()
+                ? List.of(req.firstDate().getDayOfWeek())
+                : req.daysOfWeek();
+        return new Recurrence(req.firstDate(), req.untilDate(), intervalWeeks, Recurrence.daysMask(days));
+    }
+
+    private static Recurrence recurrenceOf(BookingSeries series) {
+        return new Recurrence(
+                series.getFirstDate(), series.getUntilDate(), series.getIntervalWeeks(), series.getDaysMask());
+    }
+
+    // Dates whose occurrence would overlap one of windows (or come within a break of it), in one sweep per
+    // cleaner: a cleaner's windows never overlap each other, so sorted by start they are sorted by end too
+    private static SortedSet<LocalDate> conflicts(List<Long> cleanerIds, List<LocalDate> dates, LocalTime startTime,
+                                                  int durationH, List<CleanerBookingWindow> windows, Set<Long> busy) {
+        Map<Long, List<CleanerBookingWindow>> byCleaner = new HashMap<>();
+        for (CleanerBookingWindow w : windows) {
+            if (cleanerIds.contains(w.cleanerId())) {
+                byCleaner.computeIfAbsent(w.cleanerId(), k -> new ArrayList<>()).add(w);
+            }
+        }
+        SortedSet<LocalDate> conflicts = new TreeSet<>();
+        for (Map.Entry<Long, List<CleanerBookingWindow>> cleaner : byCleaner.entrySet()) {
+            List<CleanerBookingWindow> sorted = cleaner.getValue();
+            sorted.sort(Comparator.comparing(CleanerBookingWindow::startTime));
+            int next = 0;
+            for (LocalDate date : dates) {
+                LocalDateTime from = date.atTime(startTime).minusMinutes(BREAK_MINUTES);
+                LocalDateTime to = date.atTime(startTime).plusHours(durationH).plusMinutes(BREAK_MINUTES);
+                while (next < sorted.size() && !sorted.get(next).endTime().isAfter(from)) {
+                    next++;
+                }
+                if (next < sorted.size() && sorted.get(next).startTime().isBefore(to)) {
+                    conflicts.add(date);
+                    busy.add(cleaner.getKey());
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    // Dates on which one of cleanerIds would be off duty for part of the occurrence
+    private SortedSet<LocalDate> offDutyDates(List<Long> cleanerIds, List<LocalDate> dates, LocalTime startTime,
+                                              int durationH, Set<Long> off) {
+        SortedSet<LocalDate> offDates = new TreeSet<>();
+        for (LocalDate date : dates) {
+            LocalDateTime start = date.atTime(startTime);
+            List<Long> offDuty = scheduleIndex.offDuty(cleanerIds, start, start.plusHours(durationH));
+            if (!offDuty.isEmpty()) {
+                offDates.add(date);
+                off.addAll(offDuty);
+            }
+        }
+        return offDates;
+    }
+
+    private static String onDates(SortedSet<LocalDate> dates) {
+        String more = dates.size() > 1 ? " and " + (dates.size() - 1) + " more dates" : "";
+        return " on " + dates.first() + more;
     }
 
     // update
     @Transactional
+    @Timed(value = "booking.update", histogram = true)
     public BookingResponse update(Long bookingId, BookingUpdateRequest req) {
         Booking booking = bookingRepo.findById(bookingId)
-                .orElseThrow(() -> new BookingValidationException("Booking not found"));
+                .filter(b -> b.getStatus() == BookingStatus.ACTIVE)
+                .orElseThrow(() -> new BookingValidationException("not-found", "Booking not found"));
 
         // if any field is null, keep existing value
         LocalDate   date         = Optional.ofNullable(req.newDate()).orElse(booking.getStartTime().toLocalDate());
@@ -58,84 +412,192 @@ public class BookingService {
         List<Long>  cleanerIds   = Optional.ofNullable(req.newCleanerIds())
                 .orElse(booking.getCleaners().stream().map(Cleaner::getId).toList());
 
-        validateBusinessRules(date, startTime, durationH, cleanerIds, bookingId);
+        ValidatedBooking v = validateBusinessRules(date, startTime, durationH, cleanerIds, bookingId);
 
-        List<Cleaner> cleaners = cleanerRepo.findAllById(cleanerIds);
-        Vehicle vehicle        = cleaners.get(0).getVehicle();
-        LocalDateTime start    = date.atTime(startTime);
-        LocalDateTime end      = start.plusHours(durationH);
+        LocalDate previousDate = booking.getStartTime().toLocalDate();
+        scheduleIndex.evict(previousDate);
+        if (!previousDate.equals(date)) {
+            scheduleIndex.evict(date);
+        }
+
+        // The booking's cleaner rows follow its times (V2 trigger) and the overlap constraint is checked per
+        // statement, so a cleaner leaving a moved booking would be checked at the new time. Its rows go first;
+        // the new ones are inserted after the move.
+        boolean moved = !v.start().equals(booking.getStartTime()) || !v.end().equals(booking.getEndTime());
+        if (moved && !cleanerIds.containsAll(booking.getCleaners().stream().map(Cleaner::getId).toList())) {
+            booking.getCleaners().clear();
+            bookingRepo.flush();
+        }
 
-        booking.setStartTime(start);
-        booking.setEndTime(end);
+        booking.setStartTime(v.start());
+        booking.setEndTime(v.end());
         booking.setDurationH(durationH);
-        booking.setVehicle(vehicle);
-        booking.setCleaners(cleaners);
+        booking.setVehicle(v.vehicle());
+        booking.setCleaners(v.cleaners());
 
         Booking saved = bookingRepo.save(booking);
-        return toDto(saved);
+        BookingResponse updated = toDto(saved);
+        outbox.updated(updated);
+        return updated;
     }
 
     // validation
-    private void validateBusinessRules(LocalDate date,
-                                       LocalTime startTime,
-                                       int durationH,
-                                       List<Long> cleanerIds) {
-        validateBusinessRules(date, startTime, durationH, cleanerIds, null);
-    }
 
-    private void validateBusinessRules(LocalDate date,
-                                       LocalTime startTime,
-                                       int durationH,
-                                       List<Long> cleanerIds,
-                                       Long bookingIdToExclude) {
+    // What validation resolved, so create/update don't load it again
+    private record ValidatedBooking(List<Cleaner> cleaners, Vehicle vehicle, LocalDateTime start, LocalDateTime end) {}
+
+    private ValidatedBooking validateBusinessRules(LocalDate date,
+                                                   LocalTime startTime,
+                                                   int durationH,
+                                                   List<Long> cleanerIds) {
+        return validateBusinessRules(date, startTime, durationH, cleanerIds, null);
+    }
 
-        // Day off rule
-        if (date.getDayOfWeek() == DayOfWeek.FRIDAY) {
-            throw new BookingValidationException("No bookings allowed on Fridays");
+    private ValidatedBooking validateBusinessRules(LocalDate date,
+                                                   LocalTime startTime,
+                                                   int durationH,
+                                                   List<Long> cleanerIds,
+                                                   Long bookingIdToExclude) {
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        try {
+            ValidatedBooking validated = checkBusinessRules(date, startTime, durationH, cleanerIds, bookingIdToExclude);
+            sample.stop(validationTimer("none"));
+            return validated;
+        } catch (BookingValidationException e) {
+            sample.stop(validationTimer(e.getRule()));
+            throw e;
         }
+    }
 
-        // Working-hours rule
+    // Tagged with the rule that rejected the booking, or none when it passed
+    private static Timer validationTimer(String rule) {
+        return Timer.builder("booking.validation")
+                .tag("rule", rule)
+                .publishPercentileHistogram()
+                .register(Metrics.globalRegistry);
+    }
+
+    private ValidatedBooking checkBusinessRules(LocalDate date,
+                                                LocalTime startTime,
+                                                int durationH,
+                                                List<Long> cleanerIds,
+                                                Long bookingIdToExclude) {
+
+        Long vehicleId = checkRequestRules(date, startTime, durationH, cleanerIds);
         LocalDateTime start = date.atTime(startTime);
         LocalDateTime end   = start.plusHours(durationH);
-        if (startTime.isBefore(START_OF_DAY) || end.toLocalTime().isAfter(END_OF_DAY)) {
-            throw new BookingValidationException("Booking must be within 08:00-22:00");
-        }
 
-        // Duration
-        if (!ALLOWED_DURATIONS.contains(durationH)) {
-            throw new BookingValidationException("Duration must be 2 or 4 hours");
+        // Serialize with other bookings for these cleaners until this transaction ends
+        lockManager.lockUntilCompletion(cleanerIds);
+
+        // Availability & 30-min break rule (both sides), one query for all cleaners
+        List<Long> busy = new ArrayList<>(bookingRepo.findBusyCleanerIds(
+                cleanerIds,
+                start.minusMinutes(BREAK_MINUTES),
+                end.plusMinutes(BREAK_MINUTES),
+                bookingIdToExclude
+        ));
+        addBusyInSeries(busy, cleanerIds, start, end);
+        if (!busy.isEmpty()) {
+            throw new BookingValidationException("cleaner-busy", busyMessage(busy));
         }
 
-        // Cleaner count
-        if (cleanerIds.isEmpty() || cleanerIds.size() > 3) {
-            throw new BookingValidationException("Must assign 1-3 cleaners");
+        return new ValidatedBooking(
+                cleanerReferences(cleanerIds), vehicleRepo.getReferenceById(vehicleId), start, end);
+    }
+
+    // Adds the cleaners among cleanerIds that a virtual series occurrence keeps busy within a break of [start, end)
+    private void addBusyInSeries(List<Long> busy, Collection<Long> cleanerIds, LocalDateTime start,
+                                 LocalDateTime end) {
+        for (CleanerBookingWindow w : scheduleIndex.virtualWindows(start.toLocalDate(), start.toLocalDate())) {
+            if (cleanerIds.contains(w.cleanerId()) && !busy.contains(w.cleanerId())
+                    && overlapsWithBreak(w, start, end)) {
+                busy.add(w.cleanerId());
+            }
         }
+    }
 
-        // Cleaners exist & same vehicle
-        List<Cleaner> cleaners = cleanerRepo.findAllById(cleanerIds);
-        if (cleaners.size() != cleanerIds.size()) {
-            throw new BookingValidationException("One or more cleaners not found");
+    private static boolean overlapsWithBreak(CleanerBookingWindow w, LocalDateTime start, LocalDateTime end) {
+        return end.plusMinutes(BREAK_MINUTES).isAfter(w.startTime())
+                && start.minusMinutes(BREAK_MINUTES).isBefore(w.endTime());
+    }
+
+    // Rules that need no schedule: the compiled chain first, then the cached roster and working calendar;
+    // returns the vehicle the team shares
+    private Long checkRequestRules(LocalDate date, LocalTime startTime, int durationH, List<Long> cleanerIds) {
+        enforce(rules().check(date, startTime, durationH, cleanerIds.size()));
+
+        // Cleaners exist & same vehicle, answered from the cached roster
+        if (new HashSet<>(cleanerIds).size() != cleanerIds.size()
+                || cleanerIds.stream().anyMatch(id -> referenceData.vehicleIdOf(id) == null)) {
+            throw new BookingValidationException("cleaner-unknown", "One or more cleaners not found");
         }
-        long vehicleId = cleaners.get(0).getVehicle().getId();
-        boolean sameVehicle = cleaners.stream()
-                .allMatch(c -> c.getVehicle().getId().equals(vehicleId));
+        Long vehicleId = referenceData.vehicleIdOf(cleanerIds.get(0));
+        boolean sameVehicle = cleanerIds.stream()
+                .allMatch(id -> referenceData.vehicleIdOf(id).equals(vehicleId));
         if (!sameVehicle) {
-            throw new BookingValidationException("All cleaners must belong to the same vehicle");
+            throw new BookingValidationException("mixed-vehicle", "All cleaners must belong to the same vehicle");
+        }
+
+        LocalDateTime start = date.atTime(startTime);
+        List<Long> offDuty = scheduleIndex.offDuty(cleanerIds, start, start.plusHours(durationH));
+        if (!offDuty.isEmpty()) {
+            throw new BookingValidationException("cleaner-off-duty", offDutyMessage(offDuty));
         }
 
-        // Availability & 30-min break rule
-        for (Cleaner cleaner : cleaners) {
-            boolean overlap = bookingRepo.hasOverlap(
-                    cleaner,
-                    start.minusMinutes(30),
-                    end,
-                    bookingIdToExclude
-            );
+        return vehicleId;
+    }
 
-            if (overlap) {
-                throw new BookingValidationException("Cleaner " + cleaner.getId() + " is busy or break too short");
-            }
+    // The rules of the region the booking is made in
+    private BookingRules rules() {
+        return ruleBook.forRegion(RegionContext.current());
+    }
+
+    private static void enforce(BookingRules.Violation violation) {
+        if (violation != null) {
+            throw new BookingValidationException(violation.rule(), violation.message());
+        }
+    }
+
+    // References only: the rows are known to exist, so the booking is written without loading them
+    private List<Cleaner> cleanerReferences(List<Long> cleanerIds) {
+        List<Cleaner> cleaners = new ArrayList<>();
+        for (Long id : cleanerIds) {
+            cleaners.add(cleanerRepo.getReferenceById(id));
+        }
+        return cleaners;
+    }
+
+    private Booking newBooking(LocalDateTime start, LocalDateTime end, int durationH, String customer,
+                               Long vehicleId, List<Long> cleanerIds) {
+        return Booking.builder()
+                .startTime(start)
+                .endTime(end)
+                .durationH(durationH)
+                .customer(customer)
+                .vehicle(vehicleRepo.getReferenceById(vehicleId))
+                .cleaners(cleanerReferences(cleanerIds))
+                .build();
+    }
+
+    private static BookingValidationException noTeam(int teamSize) {
+        return new BookingValidationException("no-team", "No vehicle has " + teamSize + " free cleaners at that time");
+    }
+
+    private static String busyMessage(List<Long> busy) {
+        if (busy.size() == 1) {
+            return "Cleaner " + busy.get(0) + " is busy or break too short";
         }
+        return "Cleaners " + busy.stream().sorted().map(String::valueOf)
+                .collect(java.util.stream.Collectors.joining(", ")) + " are busy or break too short";
+    }
+
+    private static String offDutyMessage(List<Long> off) {
+        if (off.size() == 1) {
+            return "Cleaner " + off.get(0) + " is not on duty at that time";
+        }
+        return "Cleaners " + off.stream().sorted().map(String::valueOf)
+                .collect(java.util.stream.Collectors.joining(", ")) + " are not on duty at that time";
     }
 
     // Mapper
@@ -151,9 +613,92 @@ public class BookingService {
         );
     }
 
-    public BookingResponse get(Long id) { return bookingRepo.findById(id).map(this::toDto)
-            .orElseThrow(() -> new BookingValidationException("Booking not found")); }
+    // listing: keyset pagination on (startTime, id); the cursor is the key of the previous page's last row
+    @Transactional(readOnly = true)
+    @Timed(value = "booking.search", histogram = true)
+    public BookingPage search(BookingSearch search) {
+        Cursor after = search.cursor() == null
+                ? new Cursor(search.from().atStartOfDay(), Long.MIN_VALUE)
+                : Cursor.decode(search.cursor());
+        String customerPrefix = search.customer() == null ? null
+                : search.customer().toLowerCase(Locale.ROOT).replaceAll("[!%_]", "!$0") + "%";
+
+        List<BookingListRow> rows = bookingRepo.findPage(
+                after.startTime(), after.id(), search.to().plusDays(1).atStartOfDay(),
+                search.cleanerId(), search.vehicleId(), customerPrefix, Limit.of(search.limit() + 1));
+
+        List<BookingResponse> bookings = rows.stream().limit(search.limit()).map(BookingService::toDto).toList();
+        String nextCursor = null;
+        if (rows.size() > search.limit()) {
+            BookingResponse last = bookings.get(bookings.size() - 1);
+            nextCursor = new Cursor(last.startTime(), last.id()).encode();
+        }
+        return new BookingPage(bookings, nextCursor);
+    }
+
+    // Opaque to clients: URL-safe base64 of "startTime|id"
+    private record Cursor(LocalDateTime startTime, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((startTime + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
 
-    public void delete(Long id) { bookingRepo.deleteById(id); }
+        static Cursor decode(String cursor) {
+            try {
+                String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(key[0]), Long.valueOf(key[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
+    static BookingResponse toDto(BookingListRow row) {
+        return new BookingResponse(
+                row.id(),
+                row.startTime(),
+                row.endTime(),
+                row.durationH(),
+                row.customer(),
+                row.vehicleId(),
+                Arrays.stream(row.cleanerIds().split(",")).map(Long::valueOf).toList()
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public BookingResponse get(Long id) { return bookingRepo.findById(id)
+            .filter(b -> b.getStatus() == BookingStatus.ACTIVE).map(this::toDto)
+            .orElseThrow(() -> new BookingValidationException("not-found", "Booking not found")); }
+
+    @Transactional
+    @Timed(value = "booking.delete", histogram = true)
+    public void delete(Long id) {
+        cancelActive(List.of(id));
+    }
+
+    // bulk cancel: one UPDATE for the whole set; ids that are unknown or already cancelled are skipped
+    @Transactional
+    @Timed(value = "booking.cancel", histogram = true)
+    public List<Long> cancel(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new BookingValidationException("batch-size", "Cancel 1-" + MAX_BATCH_SIZE + " bookings at a time");
+        }
+        return cancelActive(ids);
+    }
+
+    // Cancelling only frees cleaners, so it takes no cleaner locks. Resident days drop the cancelled windows
+    // in place instead of reloading from the database.
+    private List<Long> cancelActive(List<Long> ids) {
+        List<Long> cancelled = bookingRepo.lockActiveIds(ids).stream().sorted().toList();
+        if (cancelled.isEmpty()) {
+            return cancelled;
+        }
+        List<CleanerBookingWindow> windows = bookingRepo.findWindowsOf(cancelled);
+        bookingRepo.cancel(cancelled, LocalDateTime.now());
+        scheduleIndex.recordCancellation(windows);
+        outbox.cancelled(cancelled);
+        return cancelled;
+    }
 
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.justlife.cleaning.cleaning_service.dto.CleanerResponse;
 import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,6 +15,7 @@ public class CleanerService {
 
     private final CleanerRepository cleanerRepository;
 
+    @Transactional(readOnly = true)
     public List<CleanerResponse> findAvailableCleaners(LocalDateTime startTime, LocalDateTime endTime) {
         return cleanerRepository.findAvailableCleaners(startTime, endTime)
                 .stream()
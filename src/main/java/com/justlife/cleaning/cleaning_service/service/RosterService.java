@@ -0,0 +1,122 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.CleanerAbsence;
+import com.justlife.cleaning.cleaning_service.domain.CleanerShift;
+import com.justlife.cleaning.cleaning_service.dto.AbsencePeriod;
+import com.justlife.cleaning.cleaning_service.dto.CleanerRoster;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadRequest;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadResponse;
+import com.justlife.cleaning.cleaning_service.dto.ShiftPeriod;
+import com.justlife.cleaning.cleaning_service.repository.CleanerAbsenceRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerShiftRepository;
+import com.justlife.cleaning.cleaning_service.schedule.SlotMask;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Bulk replacement of working calendars. The whole upload is validated before anything is written, then
+// each listed cleaner's rows are deleted in one statement per table and the new ones inserted in JDBC batches.
+@Service
+@RequiredArgsConstructor
+public class RosterService {
+
+    private static final int MAX_CLEANERS = 10_000;
+    private static final int MAX_REASON_LENGTH = 100;
+
+    private final CleanerShiftRepository shiftRepo;
+    private final CleanerAbsenceRepository absenceRepo;
+    private final ReferenceDataCache referenceData;
+    private final WorkingCalendarCache calendarCache;
+
+    @Transactional
+    @Timed(value = "roster.upload", histogram = true)
+    public RosterUploadResponse upload(RosterUploadRequest req) {
+        if (req.cleaners() == null || req.cleaners().isEmpty() || req.cleaners().size() > MAX_CLEANERS) {
+            throw new IllegalArgumentException("Roster must list 1-" + MAX_CLEANERS + " cleaners");
+        }
+
+        Set<Long> cleanerIds = new HashSet<>();
+        List<CleanerShift> shifts = new ArrayList<>();
+        List<CleanerAbsence> absences = new ArrayList<>();
+        for (CleanerRoster roster : req.cleaners()) {
+            Long cleanerId = roster.cleanerId();
+            if (cleanerId == null || referenceData.vehicleIdOf(cleanerId) == null) {
+                throw new IllegalArgumentException("Unknown cleaner " + cleanerId);
+            }
+            if (!cleanerIds.add(cleanerId)) {
+                throw new IllegalArgumentException("Cleaner " + cleanerId + " is listed more than once");
+            }
+            for (ShiftPeriod shift : nullToEmpty(roster.shifts())) {
+                if (shift.dayOfWeek() == null || !isPeriod(shift.startTime(), shift.endTime())) {
+                    throw new IllegalArgumentException("Shift of cleaner " + cleanerId
+                            + " needs a day and a start before its end, on the half-hour grid");
+                }
+                shifts.add(CleanerShift.builder()
+                        .cleanerId(cleanerId)
+                        .dayOfWeek(shift.dayOfWeek())
+                        .startTime(shift.startTime())
+                        .endTime(shift.endTime())
+                        .build());
+            }
+            for (AbsencePeriod absence : nullToEmpty(roster.absences())) {
+                if (absence.startTime() == null || absence.endTime() == null
+                        || !absence.startTime().isBefore(absence.endTime())
+                        || !onGrid(absence.startTime().toLocalTime()) || !onGrid(absence.endTime().toLocalTime())) {
+                    throw new IllegalArgumentException("Absence of cleaner " + cleanerId
+                            + " needs a start before its end, on the half-hour grid");
+                }
+                if (absence.reason() != null && absence.reason().length() > MAX_REASON_LENGTH) {
+                    throw new IllegalArgumentException("Absence reason must be at most " + MAX_REASON_LENGTH
+                            + " characters");
+                }
+                absences.add(CleanerAbsence.builder()
+                        .cleanerId(cleanerId)
+                        .startTime(absence.startTime())
+                        .endTime(absence.endTime())
+                        .reason(absence.reason())
+                        .build());
+            }
+        }
+
+        shiftRepo.deleteByCleanerIds(cleanerIds);
+        absenceRepo.deleteByCleanerIds(cleanerIds);
+        shiftRepo.saveAll(shifts);
+        absenceRepo.saveAll(absences);
+
+        // Dropped after commit, so a reload cannot race the upload and keep the old rows until the TTL
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    calendarCache.invalidate();
+                }
+            });
+        } else {
+            calendarCache.invalidate();
+        }
+        return new RosterUploadResponse(cleanerIds.size(), shifts.size(), absences.size());
+    }
+
+    private static boolean isPeriod(LocalTime start, LocalTime end) {
+        return start != null && end != null && start.isBefore(end) && onGrid(start) && onGrid(end);
+    }
+
+    private static boolean onGrid(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0 && time.getMinute() % SlotMask.SLOT_MINUTES == 0;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
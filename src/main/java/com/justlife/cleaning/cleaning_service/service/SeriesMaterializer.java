@@ -0,0 +1,44 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
+import com.justlife.cleaning.cleaning_service.region.RegionProperties;
+import io.micrometer.core.instrument.Metrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Writes series occurrences that entered the rolling window as booking rows, one series per transaction so a
+// failing series holds back only itself and is retried on the next run. Regions are walked one after another,
+// each against its own database. Off with booking.series.materialize.enabled=false, e.g. on all but one instance.
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "booking.series.materialize.enabled", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SeriesMaterializer {
+
+    private final BookingService bookingService;
+    private final RegionProperties regions;
+
+    @Scheduled(cron = "${booking.series.materialize.cron:0 15 0 * * *}")
+    public void materialize() {
+        for (String region : regions.names()) {
+            try {
+                RegionContext.run(region, this::materializeRegion);
+            } catch (RuntimeException e) {
+                Metrics.counter("booking.series.materialize.failures", "region", region).increment();
+            }
+        }
+    }
+
+    private void materializeRegion() {
+        for (Long seriesId : bookingService.seriesDueForMaterialization()) {
+            try {
+                bookingService.materializeSeries(seriesId);
+            } catch (RuntimeException e) {
+                Metrics.counter("booking.series.materialize.failures", "region", RegionContext.current()).increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+-- A cleaner's bookings, each padded with the 30-minute break, may not overlap.
+-- Enforced by the database so concurrent inserts cannot both pass the application pre-check.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE booking_cleaner ADD COLUMN busy_during TSRANGE;
+
+UPDATE booking_cleaner bc
+SET busy_during = tsrange(b.start_time, b.end_time + INTERVAL '30 minutes', '[)')
+FROM booking b
+WHERE b.id = bc.booking_id;
+
+ALTER TABLE booking_cleaner ALTER COLUMN busy_during SET NOT NULL;
+
+-- booking_cleaner rows are written by the JPA join table mapping, so the range is derived here
+CREATE FUNCTION booking_cleaner_set_busy_during() RETURNS trigger AS $$
+BEGIN
+  SELECT tsrange(b.start_time, b.end_time + INTERVAL '30 minutes', '[)')
+    INTO NEW.busy_during
+    FROM booking b
+   WHERE b.id = NEW.booking_id;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_booking_cleaner_busy_during
+  BEFORE INSERT OR UPDATE OF booking_id ON booking_cleaner
+  FOR EACH ROW EXECUTE FUNCTION booking_cleaner_set_busy_during();
+
+CREATE FUNCTION booking_sync_busy_during() RETURNS trigger AS $$
+BEGIN
+  UPDATE booking_cleaner
+     SET busy_during = tsrange(NEW.start_time, NEW.end_time + INTERVAL '30 minutes', '[)')
+   WHERE booking_id = NEW.id;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_booking_busy_during
+  AFTER UPDATE OF start_time, end_time ON booking
+  FOR EACH ROW EXECUTE FUNCTION booking_sync_busy_during();
+
+ALTER TABLE booking_cleaner
+  ADD CONSTRAINT booking_cleaner_no_overlap
+  EXCLUDE USING gist (cleaner_id WITH =, busy_during WITH &&);
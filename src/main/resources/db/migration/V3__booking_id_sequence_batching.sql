@@ -0,0 +1,2 @@
+-- Booking ids come from a pooled sequence generator (allocation size 50) so Hibernate can batch inserts
+ALTER SEQUENCE booking_id_seq INCREMENT BY 50;
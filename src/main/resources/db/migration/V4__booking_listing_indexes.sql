@@ -0,0 +1,8 @@
+-- Availability window scans and the (start_time, id) keyset listing read booking by start time
+CREATE INDEX idx_booking_start_end ON booking (start_time, end_time);
+
+-- Listing filtered by vehicle
+CREATE INDEX idx_booking_vehicle_start ON booking (vehicle_id, start_time);
+
+-- Cleaner lookups; the primary key (booking_id, cleaner_id) only serves lookups by booking
+CREATE INDEX idx_booking_cleaner_cleaner ON booking_cleaner (cleaner_id);
@@ -0,0 +1,22 @@
+-- Outbox: one row per booking change, written in the booking's transaction and drained by the relay
+CREATE SEQUENCE booking_event_id_seq INCREMENT BY 50;
+
+CREATE TABLE booking_event (
+  id BIGINT PRIMARY KEY DEFAULT nextval('booking_event_id_seq'),
+  feed_seq BIGINT UNIQUE,
+  booking_id BIGINT NOT NULL,
+  type VARCHAR(16) NOT NULL,
+  payload VARCHAR(2000) NOT NULL,
+  created_at TIMESTAMP NOT NULL
+);
+
+-- The relay's scan for events it has not numbered yet
+CREATE INDEX idx_booking_event_unsequenced ON booking_event (id) WHERE feed_seq IS NULL;
+
+-- Relay positions: last feed position handed out, last position the sink acknowledged
+CREATE TABLE outbox_cursor (
+  name VARCHAR(32) PRIMARY KEY,
+  position BIGINT NOT NULL
+);
+
+INSERT INTO outbox_cursor (name, position) VALUES ('sequencer', 0), ('sink', 0);
@@ -0,0 +1,30 @@
+-- Cancelling keeps the booking as a tombstone; only ACTIVE rows count for availability and listings
+ALTER TABLE booking ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE';
+ALTER TABLE booking ADD COLUMN cancelled_at TIMESTAMP;
+
+-- Every schedule, overlap and listing query filters on status = 'ACTIVE', so the V4 indexes become partial
+DROP INDEX idx_booking_start_end;
+CREATE INDEX idx_booking_active_start_end ON booking (start_time, end_time) WHERE status = 'ACTIVE';
+
+DROP INDEX idx_booking_vehicle_start;
+CREATE INDEX idx_booking_active_vehicle_start ON booking (vehicle_id, start_time) WHERE status = 'ACTIVE';
+
+-- A cancelled booking releases its cleaners: its busy ranges become empty, which overlap nothing under the
+-- booking_cleaner_no_overlap constraint (V2)
+CREATE OR REPLACE FUNCTION booking_sync_busy_during() RETURNS trigger AS $$
+BEGIN
+  UPDATE booking_cleaner
+     SET busy_during = CASE
+           WHEN NEW.status = 'CANCELLED' THEN 'empty'::tsrange
+           ELSE tsrange(NEW.start_time, NEW.end_time + INTERVAL '30 minutes', '[)')
+         END
+   WHERE booking_id = NEW.id;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER trg_booking_busy_during ON booking;
+
+CREATE TRIGGER trg_booking_busy_during
+  AFTER UPDATE OF start_time, end_time, status ON booking
+  FOR EACH ROW EXECUTE FUNCTION booking_sync_busy_during();
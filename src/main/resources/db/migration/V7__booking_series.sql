@@ -0,0 +1,25 @@
+-- Recurring bookings: occurrences up to materialized_through are booking rows, later ones are virtual
+CREATE TABLE booking_series (
+  id BIGSERIAL PRIMARY KEY,
+  customer VARCHAR(255),
+  vehicle_id BIGINT NOT NULL REFERENCES vehicle(id),
+  first_date DATE NOT NULL,
+  until_date DATE NOT NULL,
+  start_time TIME NOT NULL,
+  duration_h INT NOT NULL,
+  interval_weeks INT NOT NULL,
+  days_mask INT NOT NULL,
+  materialized_through DATE NOT NULL
+);
+
+CREATE TABLE booking_series_cleaner (
+  series_id BIGINT NOT NULL REFERENCES booking_series(id),
+  cleaner_id BIGINT NOT NULL REFERENCES cleaner(id),
+  PRIMARY KEY (series_id, cleaner_id)
+);
+
+-- Schedule reads look for series still virtual somewhere in a date range
+CREATE INDEX idx_booking_series_virtual ON booking_series (until_date, first_date)
+  WHERE materialized_through < until_date;
+
+ALTER TABLE booking ADD COLUMN series_id BIGINT REFERENCES booking_series(id);
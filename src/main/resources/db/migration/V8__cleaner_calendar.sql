@@ -0,0 +1,29 @@
+-- Working calendars: weekly shifts and dated absences per cleaner, replaced per cleaner by roster uploads
+CREATE SEQUENCE cleaner_shift_id_seq INCREMENT BY 50;
+
+CREATE TABLE cleaner_shift (
+  id BIGINT PRIMARY KEY DEFAULT nextval('cleaner_shift_id_seq'),
+  cleaner_id BIGINT NOT NULL REFERENCES cleaner(id),
+  day_of_week VARCHAR(9) NOT NULL,
+  start_time TIME NOT NULL,
+  end_time TIME NOT NULL,
+  CHECK (start_time < end_time)
+);
+
+CREATE INDEX idx_cleaner_shift_cleaner ON cleaner_shift (cleaner_id);
+
+CREATE SEQUENCE cleaner_absence_id_seq INCREMENT BY 50;
+
+CREATE TABLE cleaner_absence (
+  id BIGINT PRIMARY KEY DEFAULT nextval('cleaner_absence_id_seq'),
+  cleaner_id BIGINT NOT NULL REFERENCES cleaner(id),
+  start_time TIMESTAMP NOT NULL,
+  end_time TIMESTAMP NOT NULL,
+  reason VARCHAR(100),
+  CHECK (start_time < end_time)
+);
+
+CREATE INDEX idx_cleaner_absence_cleaner ON cleaner_absence (cleaner_id);
+
+-- The calendar loads absences that have not ended yet
+CREATE INDEX idx_cleaner_absence_end ON cleaner_absence (end_time);
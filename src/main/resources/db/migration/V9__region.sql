@@ -0,0 +1,6 @@
+-- Every region (city) keeps its vans, cleaners and bookings in its own database or schema; rows also record
+-- their region, so they stay attributable when exported or when regions are merged or split.
+-- Rows that predate regions belong to the default region.
+ALTER TABLE vehicle ADD COLUMN region VARCHAR(32) NOT NULL DEFAULT 'default';
+ALTER TABLE cleaner ADD COLUMN region VARCHAR(32) NOT NULL DEFAULT 'default';
+ALTER TABLE booking ADD COLUMN region VARCHAR(32) NOT NULL DEFAULT 'default';
@@ -0,0 +1,72 @@
+package com.justlife.cleaning.cleaning_service.benchmark;
+
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.Versioned;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.dto.AvailabilitySlot;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleBook;
+import com.justlife.cleaning.cleaning_service.schedule.PartitionExecutor;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import com.justlife.cleaning.cleaning_service.service.AvailabilityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// AvailabilityService read paths against the in-memory stand-in; the roster cache and schedule
+// index are warm after the first invocation, which is the steady state in production.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityServiceBenchmark {
+
+    @Param({"25", "250", "2500"})
+    int cleaners;
+
+    @Param({"1", "4"})
+    int bookingsPerCleaner;
+
+    @Param({"serial", "fork-join", "virtual-threads"})
+    String execution;
+
+    private AvailabilityService availabilityService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixture fixture = new BenchmarkFixture(cleaners, bookingsPerCleaner);
+        ReferenceDataCache referenceData = new ReferenceDataCache(fixture.cleanerRepository, Duration.ofMinutes(10));
+        ScheduleIndex scheduleIndex = new ScheduleIndex(fixture.bookingRepository, fixture.bookingSeriesRepository,
+                fixture.workingCalendar(), 500, Duration.ofMinutes(30));
+        availabilityService = new AvailabilityService(
+                referenceData,
+                fixture.bookingRepository,
+                scheduleIndex,
+                new SlotEngine(30),
+                new AvailabilityResultCache(scheduleIndex, referenceData, 10_000),
+                new PartitionExecutor(execution),
+                BookingRuleBook.DEFAULT);
+    }
+
+    @Benchmark
+    public Map<Cleaner, List<LocalTime>> getAvailableSlots() {
+        return availabilityService.getAvailableSlots(BenchmarkFixture.DATE, 2);
+    }
+
+    @Benchmark
+    public Versioned<List<AvailabilitySlot>> getDailyAvailabilityCached() {
+        return availabilityService.getDailyAvailability(BenchmarkFixture.DATE, 2);
+    }
+
+    @Benchmark
+    public List<Cleaner> getAvailableCleanersForSlot() {
+        return availabilityService.getAvailableCleanersForSlot(BenchmarkFixture.DATE, LocalTime.of(14, 0), 2);
+    }
+}
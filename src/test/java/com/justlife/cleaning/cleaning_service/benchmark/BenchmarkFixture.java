@@ -0,0 +1,190 @@
+package com.justlife.cleaning.cleaning_service.benchmark;
+
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Booking;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.repository.BookingEventRepository;
+import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
+import com.justlife.cleaning.cleaning_service.repository.BookingSeriesRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerAbsenceRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerShiftRepository;
+import com.justlife.cleaning.cleaning_service.repository.VehicleRepository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+// In-memory stand-ins for the JPA repositories, seeded with a configurable number of cleaners
+// (five per vehicle) each holding back-to-back 2-hour bookings from 08:00. Only the repository
+// methods the services call are implemented; anything else throws.
+final class BenchmarkFixture {
+
+    static final LocalDate DATE = LocalDate.of(2025, 7, 7);
+    static final int CLEANERS_PER_VEHICLE = 5;
+
+    final List<Cleaner> cleaners = new ArrayList<>();
+    final List<Booking> bookings = new ArrayList<>();
+    final CleanerRepository cleanerRepository;
+    final VehicleRepository vehicleRepository;
+    final BookingRepository bookingRepository;
+    final BookingEventRepository bookingEventRepository;
+    final BookingSeriesRepository bookingSeriesRepository;
+    final CleanerShiftRepository cleanerShiftRepository;
+    final CleanerAbsenceRepository cleanerAbsenceRepository;
+
+    private final Map<Long, Cleaner> cleanersById = new HashMap<>();
+    private final Map<Long, Vehicle> vehiclesById = new HashMap<>();
+    private final Map<Long, Booking> bookingsById = new HashMap<>();
+    private final Map<Long, List<Booking>> bookingsByCleaner = new HashMap<>();
+
+    BenchmarkFixture(int cleanerCount, int bookingsPerCleaner) {
+        Vehicle vehicle = null;
+        long bookingId = 1;
+        for (int i = 0; i < cleanerCount; i++) {
+            if (i % CLEANERS_PER_VEHICLE == 0) {
+                vehicle = Vehicle.builder().id((long) i / CLEANERS_PER_VEHICLE + 1).label("Van " + i).build();
+                vehiclesById.put(vehicle.getId(), vehicle);
+            }
+            Cleaner cleaner = Cleaner.builder().id((long) i + 1).name("Cleaner " + i).vehicle(vehicle).build();
+            cleaners.add(cleaner);
+            cleanersById.put(cleaner.getId(), cleaner);
+
+            for (int b = 0; b < bookingsPerCleaner; b++) {
+                LocalDateTime start = DATE.atTime(8, 0).plusMinutes(150L * b);
+                Booking booking = Booking.builder()
+                        .id(bookingId++)
+                        .startTime(start)
+                        .endTime(start.plusHours(2))
+                        .durationH(2)
+                        .customer("Customer " + i)
+                        .vehicle(vehicle)
+                        .cleaners(List.of(cleaner))
+                        .build();
+                bookings.add(booking);
+                bookingsById.put(booking.getId(), booking);
+                bookingsByCleaner.computeIfAbsent(cleaner.getId(), k -> new ArrayList<>()).add(booking);
+            }
+        }
+        bookings.sort(Comparator.comparing(Booking::getStartTime));
+
+        cleanerRepository = proxy(CleanerRepository.class, (method, args) -> switch (method) {
+            case "findAll", "findAllWithVehicle" -> new ArrayList<>(cleaners);
+            case "findById" -> Optional.ofNullable(cleanersById.get((Long) args[0]));
+            case "getReferenceById" -> cleanersById.get((Long) args[0]);
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        vehicleRepository = proxy(VehicleRepository.class, (method, args) -> switch (method) {
+            case "getReferenceById" -> vehiclesById.get((Long) args[0]);
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        bookingRepository = proxy(BookingRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.ofNullable(bookingsById.get((Long) args[0]));
+            case "save", "saveAll" -> args[0];
+            case "findCleanerWindows" -> windows((LocalDateTime) args[0], (LocalDateTime) args[1]);
+            case "streamCleanerWindows" -> windows((LocalDateTime) args[0], (LocalDateTime) args[1]).stream();
+            case "findBusyCleanerIds" -> busyCleanerIds((Collection<?>) args[0], (LocalDateTime) args[1],
+                    (LocalDateTime) args[2], (Long) args[3]);
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        bookingEventRepository = proxy(BookingEventRepository.class, (method, args) -> switch (method) {
+            case "save", "saveAll" -> args[0];
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        // No recurring series, so no virtual occurrences
+        bookingSeriesRepository = proxy(BookingSeriesRepository.class, (method, args) -> switch (method) {
+            case "findVirtual" -> List.of();
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        // Everyone works whenever the booking rules allow
+        cleanerShiftRepository = proxy(CleanerShiftRepository.class, (method, args) -> switch (method) {
+            case "findAll" -> List.of();
+            default -> throw new UnsupportedOperationException(method);
+        });
+        cleanerAbsenceRepository = proxy(CleanerAbsenceRepository.class, (method, args) -> switch (method) {
+            case "findEndingAfter" -> List.of();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    WorkingCalendarCache workingCalendar() {
+        return new WorkingCalendarCache(cleanerShiftRepository, cleanerAbsenceRepository, Duration.ofMinutes(10));
+    }
+
+    // Runs work inside a transaction synchronization scope and fires the commit callbacks,
+    // as the transactional proxy would around BookingService
+    static <T> T inTransaction(Supplier<T> work) {
+        TransactionSynchronizationManager.initSynchronization();
+        boolean committed = false;
+        try {
+            T result = work.get();
+            committed = true;
+            return result;
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            if (committed) {
+                TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            }
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    private List<CleanerBookingWindow> windows(LocalDateTime from, LocalDateTime to) {
+        List<CleanerBookingWindow> rows = new ArrayList<>();
+        for (Booking b : bookings) {
+            if (b.getStartTime().isBefore(to) && b.getEndTime().isAfter(from)) {
+                for (Cleaner c : b.getCleaners()) {
+                    rows.add(new CleanerBookingWindow(c.getId(), b.getStartTime(), b.getEndTime()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private List<Long> busyCleanerIds(Collection<?> cleanerIds, LocalDateTime start, LocalDateTime end,
+                                      Long excludeId) {
+        List<Long> busy = new ArrayList<>();
+        for (Object id : cleanerIds) {
+            for (Booking b : bookingsByCleaner.getOrDefault((Long) id, List.of())) {
+                if (end.isAfter(b.getStartTime()) && start.isBefore(b.getEndTime())
+                        && (excludeId == null || !excludeId.equals(b.getId()))) {
+                    busy.add((Long) id);
+                    break;
+                }
+            }
+        }
+        return busy;
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) ->
+                switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + "(in-memory)";
+                    case "hashCode" -> System.identityHashCode(p);
+                    case "equals" -> p == args[0];
+                    default -> handler.handle(method.getName(), args);
+                });
+        return type.cast(proxy);
+    }
+}
@@ -0,0 +1,68 @@
+package com.justlife.cleaning.cleaning_service.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.justlife.cleaning.cleaning_service.dto.AvailabilitySlot;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON mapping done by BookingController, using an ObjectMapper configured like Spring Boot's.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingJsonBenchmark {
+
+    @Param({"25", "2500"})
+    int cleaners;
+
+    private ObjectMapper mapper;
+    private byte[] createRequestJson;
+    private BookingResponse bookingResponse;
+    private List<AvailabilitySlot> dailyAvailability;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        createRequestJson = mapper.writeValueAsBytes(new BookingCreateRequest(
+                LocalDate.of(2025, 7, 7), LocalTime.of(10, 0), 2, "John Doe", List.of(101L, 102L)));
+        bookingResponse = new BookingResponse(1L,
+                LocalDateTime.of(2025, 7, 7, 10, 0), LocalDateTime.of(2025, 7, 7, 12, 0),
+                2, "John Doe", 1L, List.of(101L, 102L));
+
+        List<LocalTime> starts = new ArrayList<>();
+        for (LocalTime t = LocalTime.of(8, 0); !t.isAfter(LocalTime.of(20, 0)); t = t.plusMinutes(30)) {
+            starts.add(t);
+        }
+        dailyAvailability = new ArrayList<>(cleaners);
+        for (long id = 1; id <= cleaners; id++) {
+            dailyAvailability.add(new AvailabilitySlot(id, starts));
+        }
+    }
+
+    @Benchmark
+    public BookingCreateRequest readCreateRequest() throws Exception {
+        return mapper.readValue(createRequestJson, BookingCreateRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeBookingResponse() throws Exception {
+        return mapper.writeValueAsBytes(bookingResponse);
+    }
+
+    @Benchmark
+    public byte[] writeDailyAvailability() throws Exception {
+        return mapper.writeValueAsBytes(dailyAvailability);
+    }
+}
@@ -0,0 +1,103 @@
+package com.justlife.cleaning.cleaning_service.benchmark;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.dto.BookingBatchResponse;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.exception.BookingValidationException;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleBook;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// BookingService.create against the in-memory stand-in. save() does not persist, so every
+// invocation runs the full validateBusinessRules path against the same schedule.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"25", "250", "2500"})
+    int cleaners;
+
+    @Param({"1", "4"})
+    int bookingsPerCleaner;
+
+    private BookingService bookingService;
+    private BookingCreateRequest accepted;
+    private BookingCreateRequest rejected;
+    private List<BookingCreateRequest> batch;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixture fixture = new BenchmarkFixture(cleaners, bookingsPerCleaner);
+        bookingService = new BookingService(
+                fixture.bookingRepository,
+                fixture.cleanerRepository,
+                fixture.vehicleRepository,
+                new ScheduleIndex(fixture.bookingRepository, fixture.bookingSeriesRepository,
+                        fixture.workingCalendar(), 500, Duration.ofMinutes(30)),
+                new CleanerLockManager(),
+                new ReferenceDataCache(fixture.cleanerRepository, Duration.ofMinutes(10)),
+                new BookingOutbox(fixture.bookingEventRepository),
+                fixture.bookingSeriesRepository,
+                BookingRuleBook.DEFAULT);
+        accepted = new BookingCreateRequest(
+                BenchmarkFixture.DATE, LocalTime.of(20, 0), 2, "Benchmark", List.of(1L, 2L, 3L));
+        rejected = new BookingCreateRequest(
+                BenchmarkFixture.DATE, LocalTime.of(8, 0), 2, "Benchmark", List.of(1L, 2L, 3L));
+
+        // One evening booking per cleaner per Monday, so no item conflicts with the fixture or the batch
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new BookingCreateRequest(BenchmarkFixture.DATE.plusWeeks(i / cleaners), LocalTime.of(20, 0),
+                    2, "Benchmark", List.of((long) i % cleaners + 1)));
+        }
+    }
+
+    @Benchmark
+    public BookingResponse createAccepted() {
+        return BenchmarkFixture.inTransaction(() -> bookingService.create(accepted));
+    }
+
+    // Same 1,000 items through the single-booking path and the batch path, reported per item
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int createOneByOne() {
+        int created = 0;
+        for (BookingCreateRequest req : batch) {
+            BenchmarkFixture.inTransaction(() -> bookingService.create(req));
+            created++;
+        }
+        return created;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BookingBatchResponse createBatch() {
+        return BenchmarkFixture.inTransaction(() -> bookingService.createBatch(batch));
+    }
+
+    @Benchmark
+    public String createRejectedByOverlap() {
+        try {
+            BenchmarkFixture.inTransaction(() -> bookingService.create(rejected));
+            throw new IllegalStateException("expected overlap");
+        } catch (BookingValidationException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.justlife.cleaning.cleaning_service.benchmark;
+
+import com.justlife.cleaning.cleaning_service.domain.Booking;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Daily slot calculation for one cleaner: the original LocalTime/Duration loop vs the int-array sweep.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotEngineBenchmark {
+
+    private static final LocalTime START_OF_DAY = LocalTime.of(8, 0);
+    private static final LocalTime END_OF_DAY = LocalTime.of(22, 0);
+    private static final int BREAK_MINUTES = 30;
+    private static final LocalDate DATE = LocalDate.of(2025, 7, 7);
+
+    @Param({"10", "100", "1000"})
+    int bookingsPerDay;
+
+    @Param({"15", "30", "60"})
+    int granularityMinutes;
+
+    private List<Booking> bookings;
+    private int[] starts;
+    private int[] ends;
+    private int[] out;
+    private SlotEngine engine;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        bookings = new ArrayList<>(bookingsPerDay);
+        starts = new int[bookingsPerDay];
+        ends = new int[bookingsPerDay];
+        for (int i = 0; i < bookingsPerDay; i++) {
+            int duration = random.nextBoolean() ? 120 : 240;
+            int start = 8 * 60 + 15 * random.nextInt((14 * 60 - duration) / 15 + 1);
+            starts[i] = start;
+            ends[i] = start + duration;
+            LocalDateTime startTime = DATE.atTime(start / 60, start % 60);
+            bookings.add(Booking.builder()
+                    .startTime(startTime)
+                    .endTime(startTime.plusMinutes(duration))
+                    .durationH(duration / 60)
+                    .build());
+        }
+        SlotEngine.sortByStart(starts, ends, bookingsPerDay);
+        engine = new SlotEngine(granularityMinutes);
+        out = new int[engine.maxStarts()];
+    }
+
+    @Benchmark
+    public List<LocalTime> legacyCalculateAvailableSlots() {
+        return legacyCalculateAvailableSlots(bookings, 2);
+    }
+
+    @Benchmark
+    public int slotEngine() {
+        return engine.freeStarts(starts, ends, bookingsPerDay, 120, out);
+    }
+
+    // AvailabilityService.calculateAvailableSlots as it was before the slot engine, kept verbatim as the baseline
+    private static List<LocalTime> legacyCalculateAvailableSlots(List<Booking> bookings, int durationHours) {
+        List<Booking> bookingsCopy = new ArrayList<>(bookings);
+        bookingsCopy.sort(Comparator.comparing(Booking::getStartTime));
+
+        List<LocalTime> availableSlots = new ArrayList<>();
+        LocalTime cursor = START_OF_DAY;
+        int durationMinutes = durationHours * 60;
+
+        for (Booking booking : bookings) {
+            LocalTime bookingStart = booking.getStartTime().toLocalTime();
+            long minutesFree = Duration.between(cursor, bookingStart).toMinutes();
+
+            if (minutesFree >= durationMinutes) {
+                availableSlots.add(cursor);
+            }
+            cursor = booking.getEndTime().toLocalTime().plusMinutes(BREAK_MINUTES);
+        }
+
+        if (cursor.plusMinutes(durationMinutes).isBefore(END_OF_DAY.plusSeconds(1))) {
+            availableSlots.add(cursor);
+        }
+
+        return availableSlots;
+    }
+}
@@ -0,0 +1,71 @@
+package com.justlife.cleaning.cleaning_service.cache;
+
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataCacheTest {
+
+    @Mock
+    private CleanerRepository cleanerRepository;
+
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new ReferenceDataCache(cleanerRepository, Duration.ofMinutes(10));
+
+        Vehicle vanA = Vehicle.builder().id(1L).label("Van-A").build();
+        Vehicle vanB = Vehicle.builder().id(2L).label("Van-B").build();
+        when(cleanerRepository.findAllWithVehicle()).thenReturn(List.of(
+                Cleaner.builder().id(101L).name("Alice").vehicle(vanA).build(),
+                Cleaner.builder().id(102L).name("Bob").vehicle(vanA).build(),
+                Cleaner.builder().id(201L).name("Carol").vehicle(vanB).build()));
+    }
+
+    @Test
+    void answersRosterLookupsFromOneLoad() {
+        assertThat(cache.allCleaners()).hasSize(3);
+        assertThat(cache.vehicleIdOf(102L)).isEqualTo(1L);
+        assertThat(cache.vehicleIdOf(201L)).isEqualTo(2L);
+        assertThat(cache.vehicleIdOf(999L)).isNull();
+        assertThat(cache.vehicle(2L).getLabel()).isEqualTo("Van-B");
+        assertThat(cache.cleanersByVehicle()).containsEntry(1L, List.of(101L, 102L));
+
+        verify(cleanerRepository, times(1)).findAllWithVehicle();
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(5);
+    }
+
+    @Test
+    void reloadsAfterInvalidation() {
+        cache.allCleaners();
+        cache.invalidate();
+        cache.allCleaners();
+
+        verify(cleanerRepository, times(2)).findAllWithVehicle();
+    }
+
+    @Test
+    void generationMovesWhenTheRosterReloadsAfterItsTtl() throws InterruptedException {
+        ReferenceDataCache expiring = new ReferenceDataCache(cleanerRepository, Duration.ofMillis(200));
+
+        long loaded = expiring.generation();
+        assertThat(expiring.generation()).isEqualTo(loaded);
+        Thread.sleep(300);
+
+        assertThat(expiring.generation()).isGreaterThan(loaded);
+        verify(cleanerRepository, times(2)).findAllWithVehicle();
+    }
+}
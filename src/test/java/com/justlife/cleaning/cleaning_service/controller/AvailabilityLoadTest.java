@@ -0,0 +1,147 @@
+package com.justlife.cleaning.cleaning_service.controller;
+
+import com.justlife.cleaning.cleaning_service.CleaningServiceApplication;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Starts the application twice on an in-memory H2 database, once with Tomcat on platform threads and once
+// on virtual threads, and fires 2,000 concurrent clients at the availability endpoints. Dates are spread so
+// most requests miss the answer cache and load a day from the database. Virtual threads must match platform
+// threads on throughput and p99 within MARGIN, which absorbs run-to-run noise. Opt-in: -DloadTest=true
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+class AvailabilityLoadTest {
+
+    private static final int CLIENTS = 2_000;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int VEHICLES = 40;
+    private static final int CLEANERS_PER_VEHICLE = 5;
+    private static final int DAYS = 120;
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+    private static final double MARGIN = 1.25;
+
+    private record Result(String label, double requestsPerSecond, long p99Micros, int errors) {}
+
+    @Test
+    void virtualThreadsKeepUpWithPlatformThreads() throws Exception {
+        Result platform = run("platform", false, "serial");
+        Result virtual = run("virtual", true, "virtual-threads");
+
+        assertThat(platform.errors()).as("%s", platform).isZero();
+        assertThat(virtual.errors()).as("%s", virtual).isZero();
+        assertThat(virtual.requestsPerSecond()).as("%s vs %s", virtual, platform)
+                .isGreaterThanOrEqualTo(platform.requestsPerSecond() / MARGIN);
+        assertThat(virtual.p99Micros()).as("%s vs %s", virtual, platform)
+                .isLessThanOrEqualTo((long) (platform.p99Micros() * MARGIN));
+    }
+
+    private Result run(String label, boolean virtualThreads, String execution) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CleaningServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + label + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.show-sql=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "availability.execution=" + execution)
+                .run()) {
+            seedFleet(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return fire(label, port);
+        }
+    }
+
+    private Result fire(String label, int port) throws Exception {
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long began;
+        try (HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        int n = client * REQUESTS_PER_CLIENT + i;
+                        long t0 = System.nanoTime();
+                        HttpResponse<Void> response =
+                                http.send(request(port, n), HttpResponse.BodyHandlers.discarding());
+                        latencies[n] = System.nanoTime() - t0;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            began = System.nanoTime();
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(5, TimeUnit.MINUTES);
+            }
+        }
+        long elapsed = System.nanoTime() - began;
+
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1];
+        return new Result(label, latencies.length * 1e9 / elapsed, p99 / 1_000, errors.get());
+    }
+
+    // Alternates the daily and the slot endpoint over DAYS dates, skipping Fridays
+    private static HttpRequest request(int port, int n) {
+        LocalDate date = MONDAY.plusDays(n % DAYS);
+        if (date.getDayOfWeek() == DayOfWeek.FRIDAY) {
+            date = date.plusDays(1);
+        }
+        String path = n % 2 == 0
+                ? "/api/v1/availability?date=" + date + "&durationHours=2"
+                : "/api/v1/availability/slot?date=" + date + "&startTime=10:00&durationHours=2";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private static void seedFleet(ConfigurableApplicationContext context) {
+        VehicleRepository vehicleRepository = context.getBean(VehicleRepository.class);
+        CleanerRepository cleanerRepository = context.getBean(CleanerRepository.class);
+        for (long v = 1; v <= VEHICLES; v++) {
+            Vehicle vehicle = vehicleRepository.save(Vehicle.builder().id(v).label("Van " + v).build());
+            for (long c = 1; c <= CLEANERS_PER_VEHICLE; c++) {
+                cleanerRepository.save(Cleaner.builder()
+                        .id(v * 100 + c)
+                        .name("Cleaner " + v + c)
+                        .vehicle(vehicle)
+                        .build());
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.justlife.cleaning.cleaning_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.cache.Versioned;
 import com.justlife.cleaning.cleaning_service.dto.*;
+import com.justlife.cleaning.cleaning_service.outbox.BookingChangeFeed;
 import com.justlife.cleaning.cleaning_service.service.AvailabilityService;
+import com.justlife.cleaning.cleaning_service.service.BookingExportService;
 import com.justlife.cleaning.cleaning_service.service.BookingService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -11,14 +13,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -41,6 +49,12 @@ class BookingControllerTest {
     @Autowired
     private AvailabilityService availabilityService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private BookingChangeFeed changeFeed;
+
     static class MockBeans {
         @Bean BookingService bookingService() {
             return Mockito.mock(BookingService.class);
@@ -48,6 +62,12 @@ class BookingControllerTest {
         @Bean AvailabilityService availabilityService() {
             return Mockito.mock(AvailabilityService.class);
         }
+        @Bean BookingExportService bookingExportService() {
+            return Mockito.mock(BookingExportService.class);
+        }
+        @Bean BookingChangeFeed changeFeed() {
+            return Mockito.mock(BookingChangeFeed.class);
+        }
     }
 
     @Test
@@ -82,43 +102,205 @@ class BookingControllerTest {
     }
 
     @Test
-    void getDailyAvailability_returnsSlots() throws Exception {
-        LocalDate date = LocalDate.of(2025, 7, 10);
-        int duration = 2;
+    void createAutoBooking_returns201WithChosenTeam() throws Exception {
+        BookingAutoRequest req = new BookingAutoRequest(LocalDate.of(2025, 7, 10), LocalTime.of(10, 0), 2, "Jane", 2);
+        BookingResponse resp = new BookingResponse(
+                7L, LocalDateTime.of(2025, 7, 10, 10, 0), LocalDateTime.of(2025, 7, 10, 12, 0),
+                2, "Jane", 10L, List.of(101L, 102L));
+
+        Mockito.when(bookingService.createAuto(req)).thenReturn(resp);
+
+        mockMvc.perform(post("/api/v1/bookings/auto")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.vehicleId").value(10L))
+                .andExpect(jsonPath("$.cleanerIds.length()").value(2));
+    }
+
+    @Test
+    void createBookings_returnsPerItemResults() throws Exception {
+        BookingCreateRequest ok = new BookingCreateRequest(
+                LocalDate.of(2025, 7, 10), LocalTime.of(10, 0), 2, "A", List.of(101L));
+        BookingCreateRequest friday = new BookingCreateRequest(
+                LocalDate.of(2025, 7, 11), LocalTime.of(10, 0), 2, "B", List.of(101L));
+        BookingResponse created = new BookingResponse(
+                1L, LocalDateTime.of(2025, 7, 10, 10, 0), LocalDateTime.of(2025, 7, 10, 12, 0),
+                2, "A", 10L, List.of(101L));
+
+        Mockito.when(bookingService.createBatch(List.of(ok, friday))).thenReturn(new BookingBatchResponse(1, 1, List.of(
+                new BookingBatchItemResult(0, created, null),
+                new BookingBatchItemResult(1, null, "No bookings allowed on Fridays"))));
+
+        mockMvc.perform(post("/api/v1/bookings/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new BookingBatchRequest(List.of(ok, friday)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.results[0].booking.id").value(1L))
+                .andExpect(jsonPath("$.results[1].error").value("No bookings allowed on Fridays"));
+    }
+
+    @Test
+    void createBookingSeries_returnsWrittenOccurrences() throws Exception {
+        BookingSeriesRequest req = new BookingSeriesRequest(
+                LocalDate.of(2025, 7, 7), LocalDate.of(2025, 12, 29), LocalTime.of(10, 0), 2, "Weekly",
+                List.of(101L), List.of(DayOfWeek.MONDAY), 2);
+        BookingResponse first = new BookingResponse(
+                1L, LocalDateTime.of(2025, 7, 7, 10, 0), LocalDateTime.of(2025, 7, 7, 12, 0),
+                2, "Weekly", 10L, List.of(101L));
+
+        Mockito.when(bookingService.createSeries(req))
+                .thenReturn(new BookingSeriesResponse(3L, 13, LocalDate.of(2025, 7, 7), List.of(first)));
+
+        mockMvc.perform(post("/api/v1/bookings/series")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(3L))
+                .andExpect(jsonPath("$.occurrences").value(13))
+                .andExpect(jsonPath("$.materializedThrough").value("2025-07-07"))
+                .andExpect(jsonPath("$.bookings[0].id").value(1L));
+    }
 
-        Cleaner cleaner = Cleaner.builder().id(1L).build();
-        Map<Cleaner, List<LocalTime>> mockAvailability = Map.of(
-                cleaner, List.of(LocalTime.of(9, 0), LocalTime.of(14, 0))
+    @Test
+    void createBooking_returns409WhenOverlapConstraintRejectsInsert() throws Exception {
+        BookingCreateRequest req = new BookingCreateRequest(
+                LocalDate.of(2025, 7, 10),
+                LocalTime.of(10, 0),
+                2,
+                "Racer",
+                List.of(101L)
         );
 
-        Mockito.when(availabilityService.getAvailableSlots(date, duration))
-                .thenReturn(mockAvailability);
+        Mockito.when(bookingService.create(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Cleaner is already booked at that time or break too short"));
+    }
+
+    @Test
+    void getDailyAvailability_returnsSlotsWithETag() throws Exception {
+        LocalDate date = LocalDate.of(2025, 7, 10);
+        int duration = 2;
+
+        Mockito.when(availabilityService.availabilityTag(date)).thenReturn("e-0-3");
+        Mockito.when(availabilityService.getDailyAvailability(date, duration))
+                .thenReturn(new Versioned<>("e-0-3", List.of(
+                        new AvailabilitySlot(1L, List.of(LocalTime.of(9, 0), LocalTime.of(14, 0))))));
 
         mockMvc.perform(get("/api/v1/availability")
                         .param("date", date.toString())
                         .param("durationHours", String.valueOf(duration)))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-0-3\""))
                 .andExpect(jsonPath("$[0].cleanerId").value(1L));
     }
 
+    @Test
+    void getDailyAvailability_returns304WhenTagMatches() throws Exception {
+        LocalDate date = LocalDate.of(2025, 7, 11);
+
+        Mockito.when(availabilityService.availabilityTag(date)).thenReturn("e-0-3");
+
+        mockMvc.perform(get("/api/v1/availability")
+                        .param("date", date.toString())
+                        .param("durationHours", "2")
+                        .header("If-None-Match", "\"e-0-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.verify(availabilityService, Mockito.never()).getDailyAvailability(eq(date), Mockito.anyInt());
+    }
+
+    @Test
+    void getRangeAvailability_streamsOneLinePerDay() throws Exception {
+        LocalDate from = LocalDate.of(2025, 7, 7);
+        LocalDate to = LocalDate.of(2025, 7, 8);
+
+        Mockito.doAnswer(inv -> {
+            Consumer<DailyAvailability> sink = inv.getArgument(3);
+            sink.accept(new DailyAvailability(from, List.of(new AvailabilitySlot(1L, List.of(LocalTime.of(8, 0))))));
+            sink.accept(new DailyAvailability(to, List.of()));
+            return null;
+        }).when(availabilityService).streamAvailableSlots(eq(from), eq(to), eq(2), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/availability/range")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("durationHours", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"date\":\"2025-07-07\",\"slots\":[{\"cleanerId\":1,\"freeStartTimes\":[\"08:00:00\"]}]}\n"
+                                + "{\"date\":\"2025-07-08\",\"slots\":[]}\n"));
+    }
+
+    @Test
+    void getRangeAvailability_rejectsReversedRange() throws Exception {
+        mockMvc.perform(get("/api/v1/availability/range")
+                        .param("from", "2025-07-08")
+                        .param("to", "2025-07-07")
+                        .param("durationHours", "2"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAvailableCleanersForSlot_returnsCleanerIds() throws Exception {
         LocalDate date = LocalDate.of(2025, 7, 10);
         LocalTime time = LocalTime.of(10, 0);
         int duration = 2;
 
-        Cleaner cleaner = Cleaner.builder().id(101L).build();
-        Mockito.when(availabilityService.getAvailableCleanersForSlot(date, time, duration))
-                .thenReturn(List.of(cleaner));
+        Mockito.when(availabilityService.availabilityTag(date)).thenReturn("e-0-0");
+        Mockito.when(availabilityService.getCleanerIdsForSlot(date, time, duration))
+                .thenReturn(new Versioned<>("e-0-0", List.of(101L)));
 
         mockMvc.perform(get("/api/v1/availability/slot")
                         .param("date", date.toString())
                         .param("startTime", time.toString())
                         .param("durationHours", String.valueOf(duration)))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-0-0\""))
                 .andExpect(jsonPath("$[0]").value(101L));
     }
 
+    @Test
+    void getTeamAvailability_returnsStartTimesPerVan() throws Exception {
+        LocalDate date = LocalDate.of(2025, 7, 10);
+
+        Mockito.when(availabilityService.availabilityTag(date)).thenReturn("e-0-1");
+        Mockito.when(availabilityService.getTeamAvailability(date, 4, 2))
+                .thenReturn(new Versioned<>("e-0-1", List.of(
+                        new TeamAvailability(10L, List.of(LocalTime.of(8, 0), LocalTime.of(8, 30))))));
+
+        mockMvc.perform(get("/api/v1/availability/teams")
+                        .param("date", date.toString())
+                        .param("durationHours", "4")
+                        .param("teamSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-0-1\""))
+                .andExpect(jsonPath("$[0].vehicleId").value(10L))
+                .andExpect(jsonPath("$[0].startTimes[1]").value("08:30:00"));
+    }
+
+    @Test
+    void getTeamAvailability_rejectsTeamLargerThanThree() throws Exception {
+        mockMvc.perform(get("/api/v1/availability/teams")
+                        .param("date", "2025-07-10")
+                        .param("durationHours", "2")
+                        .param("teamSize", "4"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateBooking_returnsUpdatedBooking() throws Exception {
         BookingUpdateRequest req = new BookingUpdateRequest(
@@ -167,6 +349,120 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.id").value(1L));
     }
 
+    @Test
+    void listBookings_returnsPageWithCursor() throws Exception {
+        BookingResponse booking = new BookingResponse(
+                3L, LocalDateTime.of(2025, 7, 7, 8, 0), LocalDateTime.of(2025, 7, 7, 10, 0),
+                2, "Jane", 10L, List.of(101L, 102L));
+        BookingSearch search = new BookingSearch(
+                LocalDate.of(2025, 7, 7), LocalDate.of(2025, 7, 13), 101L, null, null, "abc", 1);
+
+        Mockito.when(bookingService.search(search)).thenReturn(new BookingPage(List.of(booking), "next"));
+
+        mockMvc.perform(get("/api/v1/bookings")
+                        .param("from", "2025-07-07")
+                        .param("to", "2025-07-13")
+                        .param("cleanerId", "101")
+                        .param("cursor", "abc")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings[0].cleanerIds.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void listBookings_rejectsOversizedPage() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings")
+                        .param("from", "2025-07-07")
+                        .param("to", "2025-07-13")
+                        .param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportBookings_streamsCsvWithQuotedCustomer() throws Exception {
+        LocalDate from = LocalDate.of(2025, 7, 1);
+        LocalDate to = LocalDate.of(2025, 7, 31);
+
+        Mockito.doAnswer(inv -> {
+            Consumer<BookingResponse> sink = inv.getArgument(2);
+            sink.accept(new BookingResponse(1L, LocalDateTime.of(2025, 7, 7, 8, 0),
+                    LocalDateTime.of(2025, 7, 7, 10, 0), 2, "Doe, Jane", 10L, List.of(101L, 102L)));
+            return null;
+        }).when(bookingExportService).export(eq(from), eq(to), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/bookings/export")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"bookings-2025-07-01-2025-07-31.csv\""))
+                .andExpect(content().string("id,startTime,endTime,durationH,customer,vehicleId,cleanerIds\n"
+                        + "1,2025-07-07T08:00,2025-07-07T10:00,2,\"Doe, Jane\",10,101 102\n"));
+    }
+
+    @Test
+    void exportBookings_rejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings/export")
+                        .param("from", "2025-07-01")
+                        .param("to", "2025-07-31")
+                        .param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsUnknownRegion() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings")
+                        .param("from", "2025-07-01")
+                        .param("to", "2025-07-31")
+                        .header("X-Region", "nowhere"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown region nowhere"));
+    }
+
+    @Test
+    void bookingChanges_answersFromTheFeed() throws Exception {
+        DeferredResult<BookingChanges> changes = new DeferredResult<>();
+        changes.setResult(new BookingChanges(List.of(new BookingChange(
+                8L, "default", 1L, "CANCELLED", "{\"id\":1}", LocalDateTime.of(2025, 7, 7, 9, 0))), 8L));
+        Mockito.when(changeFeed.poll(7L, 100, Duration.ofSeconds(5))).thenReturn(changes);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/bookings/changes")
+                        .param("sinceSeq", "7")
+                        .param("waitSeconds", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastSeq").value(8))
+                .andExpect(jsonPath("$.changes[0].type").value("CANCELLED"))
+                .andExpect(jsonPath("$.changes[0].payload.id").value(1));
+    }
+
+    @Test
+    void bookingChanges_rejectsOverlongWait() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings/changes")
+                        .param("waitSeconds", "600"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cancelBookings_returnsCancelledIds() throws Exception {
+        Mockito.when(bookingService.cancel(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+
+        mockMvc.perform(delete("/api/v1/bookings").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cancelled[0]").value(1))
+                .andExpect(jsonPath("$.cancelled[1]").value(3));
+    }
+
     @Test
     void deleteBooking_returns204() throws Exception {
         Mockito.doNothing().when(bookingService).delete(1L);
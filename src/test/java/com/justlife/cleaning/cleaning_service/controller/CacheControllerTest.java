@@ -0,0 +1,64 @@
+package com.justlife.cleaning.cleaning_service.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+@Import(CacheControllerTest.MockBeans.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private AvailabilityResultCache availabilityResultCache;
+
+    static class MockBeans {
+        @Bean ReferenceDataCache referenceDataCache() {
+            return Mockito.mock(ReferenceDataCache.class);
+        }
+        @Bean AvailabilityResultCache availabilityResultCache() {
+            return Mockito.mock(AvailabilityResultCache.class);
+        }
+    }
+
+    @Test
+    void getReferenceDataStats_returnsHitsAndMisses() throws Exception {
+        Mockito.when(referenceDataCache.stats())
+                .thenReturn(CacheStats.of(9, 1, 1, 0, 5_000, 0, 0));
+
+        mockMvc.perform(get("/api/v1/cache/reference-data"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(9))
+                .andExpect(jsonPath("$.misses").value(1))
+                .andExpect(jsonPath("$.hitRate").value(0.9))
+                .andExpect(jsonPath("$.loads").value(1));
+    }
+
+    @Test
+    void getAvailabilityStats_returnsHitsAndMisses() throws Exception {
+        Mockito.when(availabilityResultCache.stats())
+                .thenReturn(CacheStats.of(3, 1, 0, 0, 0, 2, 2));
+
+        mockMvc.perform(get("/api/v1/cache/availability"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(3))
+                .andExpect(jsonPath("$.hitRate").value(0.75))
+                .andExpect(jsonPath("$.evictions").value(2));
+    }
+
+}
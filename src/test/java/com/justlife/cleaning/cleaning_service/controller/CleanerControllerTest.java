@@ -1,8 +1,12 @@
 package com.justlife.cleaning.cleaning_service.controller;
 
 import com.justlife.cleaning.cleaning_service.dto.CleanerResponse;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadRequest;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadResponse;
 import com.justlife.cleaning.cleaning_service.service.CleanerService;
+import com.justlife.cleaning.cleaning_service.service.RosterService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -11,11 +15,15 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CleanerController.class)
@@ -28,10 +36,17 @@ class CleanerControllerTest {
     @Autowired
     private CleanerService cleanerService;
 
+    @Autowired
+    private RosterService rosterService;
+
     static class MockBeans {
         @Bean CleanerService cleanerService() {
             return Mockito.mock(CleanerService.class);
         }
+
+        @Bean RosterService rosterService() {
+            return Mockito.mock(RosterService.class);
+        }
     }
 
     @Test
@@ -68,4 +83,31 @@ class CleanerControllerTest {
                 .andExpect(content().json("[]"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void uploadRoster_passesEveryCleanersCalendarToTheService() throws Exception {
+        Mockito.when(rosterService.upload(Mockito.any())).thenReturn(new RosterUploadResponse(2, 1, 1));
+
+        mockMvc.perform(put("/api/v1/cleaners/roster")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"cleaners": [
+                                  {"cleanerId": 101,
+                                   "shifts": [{"dayOfWeek": "MONDAY", "startTime": "12:00", "endTime": "20:00"}]},
+                                  {"cleanerId": 102,
+                                   "absences": [{"startTime": "2025-07-07T00:00", "endTime": "2025-07-12T00:00",
+                                                 "reason": "Leave"}]}
+                                ]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cleaners").value(2))
+                .andExpect(jsonPath("$.shifts").value(1))
+                .andExpect(jsonPath("$.absences").value(1));
+
+        ArgumentCaptor<RosterUploadRequest> req = ArgumentCaptor.forClass(RosterUploadRequest.class);
+        Mockito.verify(rosterService).upload(req.capture());
+        assertThat(req.getValue().cleaners().get(0).shifts().get(0).dayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+        assertThat(req.getValue().cleaners().get(0).shifts().get(0).endTime()).isEqualTo(LocalTime.of(20, 0));
+        assertThat(req.getValue().cleaners().get(1).absences().get(0).reason()).isEqualTo("Leave");
+    }
+
+}
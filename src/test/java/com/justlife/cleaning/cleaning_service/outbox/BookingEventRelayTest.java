@@ -0,0 +1,167 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.dto.BookingChange;
+import com.justlife.cleaning.cleaning_service.dto.BookingChanges;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.dto.BookingUpdateRequest;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.repository.*;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Drives the relay by hand against H2 with committed bookings: every change reaches the sink once, in feed
+// order, in batches of outbox.relay.batch-size; a batch the sink refused is sent again on the next run.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "outbox.relay.batch-size=4",
+        "outbox.relay.initial-backoff=0s"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookingService.class, BookingOutbox.class, BookingChangeFeed.class, BookingEventRelay.class,
+        BookingEventRelayTest.FlakySink.class, ScheduleIndex.class, CleanerLockManager.class,
+        ReferenceDataCache.class, ReferenceDataInvalidator.class, WorkingCalendarCache.class,
+        BookingRulesConfiguration.class, RegionConfiguration.class})
+class BookingEventRelayTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+
+    // Records what it took; refuses the next failNext batches
+    static class FlakySink implements BookingEventSink {
+        final List<BookingChange> received = new CopyOnWriteArrayList<>();
+        final AtomicInteger batches = new AtomicInteger();
+        final AtomicInteger failNext = new AtomicInteger();
+
+        @Override
+        public void send(List<BookingChange> batch) {
+            if (failNext.getAndDecrement() > 0) {
+                throw new IllegalStateException("sink down");
+            }
+            batches.incrementAndGet();
+            received.addAll(batch);
+        }
+    }
+
+    @Autowired private BookingService bookingService;
+    @Autowired private BookingEventRelay relay;
+    @Autowired private BookingChangeFeed feed;
+    @Autowired private FlakySink sink;
+    @Autowired private BookingEventRepository eventRepository;
+    @Autowired private OutboxCursorRepository cursorRepository;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private CleanerRepository cleanerRepository;
+    @Autowired private VehicleRepository vehicleRepository;
+
+    @BeforeEach
+    void seed() {
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder().id(1L).label("Van 1").build());
+        cleanerRepository.save(Cleaner.builder().id(101L).name("Cleaner 101").vehicle(vehicle).build());
+        cleanerRepository.save(Cleaner.builder().id(102L).name("Cleaner 102").vehicle(vehicle).build());
+        sink.received.clear();
+        sink.batches.set(0);
+        sink.failNext.set(0);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        eventRepository.deleteAll();
+        cursorRepository.deleteAll();
+        bookingRepository.deleteAll();
+        cleanerRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    @Test
+    void deliversEveryChangeOnceInFeedOrder() {
+        BookingResponse first = book(LocalTime.of(8, 0), 101L);
+        bookingService.update(first.id(), new BookingUpdateRequest(null, LocalTime.of(9, 0), null, null));
+        bookingService.createBatch(List.of(
+                request(LocalTime.of(12, 0), 101L),
+                request(LocalTime.of(15, 0), 101L),
+                request(LocalTime.of(12, 0), 102L)));
+        bookingService.delete(first.id());
+
+        relay.relay();
+        relay.relay();
+
+        assertThat(sink.batches).hasValue(2);
+        assertThat(sink.received).extracting(BookingChange::seq).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(sink.received).extracting(BookingChange::type)
+                .containsExactly("CREATED", "UPDATED", "CREATED", "CREATED", "CREATED", "CANCELLED");
+        assertThat(sink.received.get(1).payload()).contains("\"startTime\":\"2025-07-07T09:00:00\"");
+        assertThat(sink.received.get(5).bookingId()).isEqualTo(first.id());
+
+        assertThat(feed.read(0, 100).changes()).containsExactlyElementsOf(sink.received);
+        BookingChanges tail = feed.read(4, 100);
+        assertThat(tail.changes()).extracting(BookingChange::seq).containsExactly(5L, 6L);
+        assertThat(tail.lastSeq()).isEqualTo(6);
+    }
+
+    @Test
+    void refusedBatchIsSentAgainOnTheNextRun() {
+        book(LocalTime.of(8, 0), 101L);
+        book(LocalTime.of(8, 0), 102L);
+        sink.failNext.set(1);
+
+        relay.relay();
+        assertThat(sink.received).isEmpty();
+        assertThat(cursorRepository.findById(BookingEventRelay.SEQUENCER)).hasValueSatisfying(
+                c -> assertThat(c.getPosition()).isEqualTo(2));
+
+        relay.relay();
+        assertThat(sink.received).extracting(BookingChange::seq).containsExactly(1L, 2L);
+        assertThat(cursorRepository.findById(BookingEventRelay.SINK)).hasValueSatisfying(
+                c -> assertThat(c.getPosition()).isEqualTo(2));
+    }
+
+    @Test
+    void pollWaitsForTheRelayToSequenceAChange() {
+        relay.relay();
+        DeferredResult<BookingChanges> poll = feed.poll(0, 10, Duration.ofSeconds(30));
+        assertThat(poll.hasResult()).isFalse();
+
+        BookingResponse booking = book(LocalTime.of(10, 0), 101L);
+        assertThat(poll.hasResult()).isFalse();
+
+        relay.relay();
+        assertThat(poll.hasResult()).isTrue();
+        BookingChanges changes = (BookingChanges) poll.getResult();
+        assertThat(changes.changes()).singleElement()
+                .satisfies(c -> assertThat(c.bookingId()).isEqualTo(booking.id()));
+        assertThat(changes.lastSeq()).isEqualTo(1);
+    }
+
+    private BookingResponse book(LocalTime start, Long cleanerId) {
+        return bookingService.create(request(start, cleanerId));
+    }
+
+    private static BookingCreateRequest request(LocalTime start, Long cleanerId) {
+        return new BookingCreateRequest(MONDAY, start, 2, "Outbox", List.of(cleanerId));
+    }
+}
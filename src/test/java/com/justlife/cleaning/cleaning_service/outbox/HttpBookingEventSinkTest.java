@@ -0,0 +1,76 @@
+package com.justlife.cleaning.cleaning_service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.justlife.cleaning.cleaning_service.dto.BookingChange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Against a stub endpoint on the JDK HTTP server
+class HttpBookingEventSinkTest {
+
+    private static final List<BookingChange> BATCH = List.of(
+            new BookingChange(1, "default", 10L, "CREATED", "{\"id\":10}", LocalDateTime.of(2025, 7, 7, 9, 0)),
+            new BookingChange(2, "default", 10L, "CANCELLED", "{\"id\":10}", LocalDateTime.of(2025, 7, 7, 9, 5)));
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(204);
+    private HttpServer server;
+    private HttpBookingEventSink sink;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        sink = new HttpBookingEventSink(
+                URI.create("http://localhost:" + server.getAddress().getPort() + "/events"), objectMapper);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void postsTheBatchAsNdjson() {
+        sink.send(BATCH);
+
+        assertThat(bodies).singleElement().isEqualTo(
+                "{\"seq\":1,\"region\":\"default\",\"bookingId\":10,\"type\":\"CREATED\","
+                        + "\"payload\":{\"id\":10},\"createdAt\":\"2025-07-07T09:00:00\"}\n"
+                        + "{\"seq\":2,\"region\":\"default\",\"bookingId\":10,\"type\":\"CANCELLED\","
+                        + "\"payload\":{\"id\":10},\"createdAt\":\"2025-07-07T09:05:00\"}\n");
+    }
+
+    @Test
+    void failsOnErrorStatusSoTheRelayRetries() {
+        status.set(503);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> sink.send(BATCH));
+
+        assertThat(e).hasMessage("Booking event endpoint answered 503");
+    }
+}
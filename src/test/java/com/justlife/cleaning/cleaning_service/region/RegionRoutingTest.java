@@ -0,0 +1,116 @@
+package com.justlife.cleaning.cleaning_service.region;
+
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Booking;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.VehicleRepository;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.PartitionExecutor;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import com.justlife.cleaning.cleaning_service.service.AvailabilityService;
+import com.justlife.cleaning.cleaning_service.service.BookingService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two regions on two embedded databases, seeded with the same vans and cleaner ids: a booking made in one
+// region must not show up in, or take availability away from, the other.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:region-default;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "regions.databases.west.url=jdbc:h2:mem:region-west;DB_CLOSE_DELAY=-1",
+        "regions.databases.west.username=sa",
+        "regions.databases.west.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RegionConfiguration.class, RegionDataSourceConfiguration.class, RegionRoutingTest.WestSchema.class,
+        BookingService.class, BookingOutbox.class, AvailabilityService.class, ScheduleIndex.class, SlotEngine.class,
+        PartitionExecutor.class, CleanerLockManager.class, ReferenceDataCache.class, ReferenceDataInvalidator.class,
+        WorkingCalendarCache.class, AvailabilityResultCache.class, BookingRulesConfiguration.class})
+class RegionRoutingTest {
+
+    private static final String WEST = "west";
+    private static final LocalDate MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired private BookingService bookingService;
+    @Autowired private AvailabilityService availabilityService;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private CleanerRepository cleanerRepository;
+    @Autowired private VehicleRepository vehicleRepository;
+
+    @Test
+    void bookingsAndAvailabilityStayInTheirRegion() {
+        seed();
+        RegionContext.run(WEST, this::seed);
+
+        BookingResponse booked = RegionContext.call(WEST, () -> bookingService.create(
+                new BookingCreateRequest(MONDAY, LocalTime.of(10, 0), 2, "West", List.of(101L))));
+
+        assertThat(RegionContext.call(WEST, () -> bookingRepository.findAll()))
+                .singleElement()
+                .satisfies(b -> assertThat(b.getId()).isEqualTo(booked.id()))
+                .extracting(Booking::getRegion).isEqualTo(WEST);
+        assertThat(bookingRepository.count()).isZero();
+
+        assertThat(RegionContext.call(WEST,
+                () -> availabilityService.getCleanerIdsForSlot(MONDAY, LocalTime.of(10, 0), 2).value()))
+                .containsExactly(102L);
+        assertThat(availabilityService.getCleanerIdsForSlot(MONDAY, LocalTime.of(10, 0), 2).value())
+                .containsExactlyInAnyOrder(101L, 102L);
+        assertThat(RegionContext.call(WEST, () -> availabilityService.availabilityTag(MONDAY)))
+                .startsWith(WEST + "-")
+                .isNotEqualTo(availabilityService.availabilityTag(MONDAY));
+    }
+
+    private void seed() {
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder().id(1L).label("Van 1").build());
+        cleanerRepository.save(Cleaner.builder().id(101L).name("Cleaner 101").vehicle(vehicle).build());
+        cleanerRepository.save(Cleaner.builder().id(102L).name("Cleaner 102").vehicle(vehicle).build());
+    }
+
+    // ddl-auto only reaches the default region's database; the west one gets the same schema while the
+    // singletons are created, before the region warm-up reads from it
+    @TestConfiguration(proxyBeanMethods = false)
+    static class WestSchema {
+
+        @Bean
+        Object westSchema(EntityManagerFactory entityManagerFactory) {
+            RegionContext.run(WEST, () -> entityManagerFactory.unwrap(SessionFactory.class)
+                    .getSchemaManager().exportMappedObjects(true));
+            return WEST;
+        }
+    }
+}
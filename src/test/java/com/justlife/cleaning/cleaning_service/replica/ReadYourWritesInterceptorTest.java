@@ -0,0 +1,62 @@
+package com.justlife.cleaning.cleaning_service.replica;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofSeconds(5));
+
+    @AfterEach
+    void clear() {
+        ReadRouting.clear();
+    }
+
+    @Test
+    void writePinsTheRequestAndSetsTheWindowCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/bookings"), response, null);
+
+        assertThat(ReadRouting.replicaAllowed()).isFalse();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE))
+                .startsWith("read-primary=1;")
+                .contains("Max-Age=5", "HttpOnly");
+    }
+
+    @Test
+    void readsStayOnThePrimaryWhileTheCookieLasts() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/bookings/1");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE, "1"));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertThat(ReadRouting.replicaAllowed()).isFalse();
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        assertThat(ReadRouting.replicaAllowed()).isTrue();
+    }
+
+    @Test
+    void otherReadsMayUseTheReplica() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/availability"), response, null);
+
+        assertThat(ReadRouting.replicaAllowed()).isTrue();
+        assertThat(response.getHeader(HttpHeaders.SET_COOKIE)).isNull();
+    }
+
+    @Test
+    void rejectsWindowsShorterThanASecond() {
+        assertThrows(IllegalArgumentException.class, () -> new ReadYourWritesInterceptor(Duration.ofMillis(500)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.justlife.cleaning.cleaning_service.replica;
+
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.exception.BookingValidationException;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.region.RegionDataSourceConfiguration;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.VehicleRepository;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.PartitionExecutor;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import com.justlife.cleaning.cleaning_service.service.AvailabilityService;
+import com.justlife.cleaning.cleaning_service.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A primary and a replica on two embedded databases. The replica only catches up when the test copies the
+// primary over, so a read that sees a fresh booking must have gone to the primary.
+@DataJpaTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "replicas.databases.default.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "replicas.databases.default.username=sa",
+        "replicas.databases.default.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RegionConfiguration.class, RegionDataSourceConfiguration.class,
+        BookingService.class, BookingOutbox.class, AvailabilityService.class, ScheduleIndex.class, SlotEngine.class,
+        PartitionExecutor.class, CleanerLockManager.class, ReferenceDataCache.class, ReferenceDataInvalidator.class,
+        WorkingCalendarCache.class, AvailabilityResultCache.class, BookingRulesConfiguration.class})
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-replica;DB_CLOSE_DELAY=-1";
+
+    private static final LocalDate MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired private BookingService bookingService;
+    @Autowired private AvailabilityService availabilityService;
+    @Autowired private CleanerRepository cleanerRepository;
+    @Autowired private VehicleRepository vehicleRepository;
+
+    @Test
+    void readOnlyReadsUseTheReplicaUnlessPinnedToThePrimary() {
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder().id(1L).label("Van 1").build());
+        cleanerRepository.save(Cleaner.builder().id(101L).name("Cleaner 101").vehicle(vehicle).build());
+        cleanerRepository.save(Cleaner.builder().id(102L).name("Cleaner 102").vehicle(vehicle).build());
+        replicate();
+
+        BookingResponse booked = bookingService.create(
+                new BookingCreateRequest(MONDAY, LocalTime.of(10, 0), 2, "Fresh", List.of(101L)));
+
+        BookingValidationException lagging = assertThrows(BookingValidationException.class,
+                () -> bookingService.get(booked.id()));
+        assertThat(lagging.getRule()).isEqualTo("not-found");
+        assertThat(ReadRouting.onPrimary(() -> bookingService.get(booked.id())).customer()).isEqualTo("Fresh");
+        // The resident schedule is filled from the primary and sees the booking straight away
+        assertThat(availabilityService.getCleanerIdsForSlot(MONDAY, LocalTime.of(10, 0), 2).value())
+                .containsExactly(102L);
+
+        replicate();
+        assertThat(bookingService.get(booked.id()).customer()).isEqualTo("Fresh");
+    }
+
+    // Stands in for replication: the replica becomes a copy of the primary as it is now
+    private static void replicate() {
+        JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+}
@@ -0,0 +1,80 @@
+package com.justlife.cleaning.cleaning_service.rules;
+
+import com.justlife.cleaning.cleaning_service.schedule.CleanerDay;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import com.justlife.cleaning.cleaning_service.schedule.SlotMask;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingRulesTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+
+    @Test
+    void check_stopsAtTheFirstBrokenRuleInChainOrder() {
+        BookingRules rules = BookingRules.DEFAULT;
+
+        // Friday, too early, 3 hours and 4 cleaners: only the day is reported
+        assertThat(rules.check(MONDAY.plusDays(4), LocalTime.of(7, 0), 3, 4))
+                .isEqualTo(new BookingRules.Violation("friday", "No bookings allowed on Fridays"));
+        assertThat(rules.check(MONDAY, LocalTime.of(21, 0), 3, 4).rule()).isEqualTo("working-hours");
+        assertThat(rules.check(MONDAY, LocalTime.of(10, 0), 3, 4).message()).isEqualTo("Duration must be 2 or 4 hours");
+        assertThat(rules.check(MONDAY, LocalTime.of(10, 0), 2, 4).message()).isEqualTo("Must assign 1-3 cleaners");
+        assertThat(rules.check(MONDAY, LocalTime.of(20, 0), 2, 3)).isNull();
+    }
+
+    @Test
+    void regionOverridesKeepUnsetDefaults() {
+        BookingRuleProperties.Region gulf = new BookingRuleProperties.Region();
+        gulf.setDaysOff(List.of(DayOfWeek.SUNDAY, DayOfWeek.FRIDAY));
+        gulf.setOpens("09:00");
+        gulf.setDurationHours(List.of(4, 2, 3));
+        BookingRuleProperties properties = new BookingRuleProperties();
+        properties.setRegions(Map.of("gulf", gulf));
+
+        BookingRuleBook book = BookingRuleBook.compile(properties);
+        BookingRules rules = book.forRegion("gulf");
+
+        assertThat(rules.check(MONDAY.minusDays(1), LocalTime.of(10, 0), 2, 1))
+                .isEqualTo(new BookingRules.Violation("friday-sunday", "No bookings allowed on Fridays or Sundays"));
+        assertThat(rules.check(MONDAY, LocalTime.of(8, 30), 2, 1).message())
+                .isEqualTo("Booking must be within 09:00-22:00");
+        assertThat(rules.check(MONDAY, LocalTime.of(10, 0), 3, 3)).isNull();
+        assertThat(book.forRegion("elsewhere")).isSameAs(book.defaults());
+    }
+
+    @Test
+    void slotGenerationOffersExactlyTheStartsValidationAccepts() {
+        BookingRules rules = BookingRules.compile(Set.of(), LocalTime.of(9, 0), LocalTime.of(18, 0), List.of(2), 1, 3);
+        SlotEngine engine = new SlotEngine(30, rules);
+        int[] out = new int[engine.maxStarts()];
+
+        List<LocalTime> starts = SlotEngine.toTimes(out, engine.freeStarts(CleanerDay.FREE, 120, out));
+
+        assertThat(starts).hasSize(15).startsWith(LocalTime.of(9, 0)).endsWith(LocalTime.of(16, 0));
+        for (int slot = 0; slot < SlotMask.SLOTS_PER_DAY; slot++) {
+            LocalTime start = SlotMask.startOf(slot);
+            boolean offered = (rules.startMask(4) >>> slot & 1) == 1;
+            assertThat(offered).as("%s", start).isEqualTo(starts.contains(start))
+                    .isEqualTo(rules.check(MONDAY, start, 2, 1) == null);
+        }
+        assertThat(rules.bookable(MONDAY, 4)).isFalse();
+    }
+
+    @Test
+    void compile_rejectsHoursOffTheSlotGrid() {
+        assertThrows(IllegalArgumentException.class, () -> BookingRules.compile(
+                Set.of(), LocalTime.of(7, 0), LocalTime.of(22, 0), List.of(2), 1, 3));
+        assertThrows(IllegalArgumentException.class, () -> BookingRules.compile(
+                Set.of(), LocalTime.of(8, 15), LocalTime.of(22, 0), List.of(2), 1, 3));
+    }
+}
@@ -0,0 +1,44 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PartitionExecutorTest {
+
+    @Test
+    void map_returnsResultsInPartitionOrderInEveryMode() {
+        List<Integer> partitions = IntStream.range(0, 200).boxed().toList();
+
+        List<Integer> serial = new PartitionExecutor("serial").map(partitions, p -> p * p);
+        List<Integer> forkJoin = new PartitionExecutor("fork-join").map(partitions, p -> p * p);
+        List<Integer> virtual = new PartitionExecutor("virtual-threads").map(partitions, p -> p * p);
+
+        assertThat(forkJoin).isEqualTo(serial);
+        assertThat(virtual).isEqualTo(serial);
+        assertThat(serial.get(199)).isEqualTo(199 * 199);
+    }
+
+    @Test
+    void map_rethrowsFirstFailure() {
+        PartitionExecutor executor = new PartitionExecutor("VIRTUAL_THREADS");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> executor.map(List.of(1, 2, 3), p -> {
+            if (p == 2) {
+                throw new IllegalStateException("partition " + p);
+            }
+            return p;
+        }));
+
+        assertThat(e).hasMessage("partition 2");
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        assertThrows(IllegalArgumentException.class, () -> new PartitionExecutor("threads"));
+    }
+}
@@ -0,0 +1,33 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceTest {
+
+    @Test
+    void dates_biweeklyCountsWeeksFromTheFirstDateAndSkipsFridays() {
+        // Starts on a Wednesday; Friday is asked for but never occurs
+        Recurrence recurrence = new Recurrence(LocalDate.of(2025, 7, 9), LocalDate.of(2025, 8, 6), 2,
+                Recurrence.daysMask(List.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY)));
+
+        assertThat(recurrence.dates(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 9, 1)))
+                .containsExactly(LocalDate.of(2025, 7, 9), LocalDate.of(2025, 7, 21), LocalDate.of(2025, 7, 23),
+                        LocalDate.of(2025, 8, 4), LocalDate.of(2025, 8, 6));
+    }
+
+    @Test
+    void dates_clipsToTheRequestedRange() {
+        Recurrence weekly = new Recurrence(LocalDate.of(2025, 7, 7), LocalDate.of(2026, 7, 6), 1,
+                Recurrence.daysMask(List.of(DayOfWeek.MONDAY)));
+
+        assertThat(weekly.dates(LocalDate.of(2025, 7, 8), LocalDate.of(2025, 7, 21)))
+                .containsExactly(LocalDate.of(2025, 7, 14), LocalDate.of(2025, 7, 21));
+        assertThat(weekly.dates(LocalDate.of(2026, 7, 7), LocalDate.of(2026, 8, 1))).isEmpty();
+    }
+}
@@ -0,0 +1,103 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
+import com.justlife.cleaning.cleaning_service.repository.BookingSeriesRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerAbsenceRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow;
+import com.justlife.cleaning.cleaning_service.repository.CleanerShiftRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduleIndexTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+
+    @Mock private BookingRepository bookingRepository;
+    @Mock private BookingSeriesRepository seriesRepository;
+    @Mock private CleanerShiftRepository shiftRepository;
+    @Mock private CleanerAbsenceRepository absenceRepository;
+
+    private ScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new ScheduleIndex(bookingRepository, seriesRepository,
+                new WorkingCalendarCache(shiftRepository, absenceRepository, Duration.ofMinutes(10)),
+                500, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void bookingCommittedWhileTheDayLoadsIsAppliedOnceLoaded() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingRepository.findCleanerWindows(any(), any())).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Map<Long, CleanerDay>> loading = pool.submit(() -> index.day(MONDAY));
+        assertThat(querying.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The load's query has already read the day, so only the after-commit update can bring the booking in
+        index.recordBooking(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0), List.of(1L));
+        release.countDown();
+        loading.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        long requested = ScheduleIndex.requested(MONDAY.atTime(10, 0), MONDAY.atTime(12, 0));
+        assertThat(index.busySlots(MONDAY, 1L) & requested).isEqualTo(requested);
+        verify(bookingRepository, times(1)).findCleanerWindows(any(), any());
+    }
+
+    @Test
+    void dayLoadedAgainGetsANewVersion() {
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(List.of());
+
+        long loaded = index.version(MONDAY);
+        assertThat(index.version(MONDAY)).isEqualTo(loaded);
+        index.evict(MONDAY);
+
+        assertThat(index.version(MONDAY)).isGreaterThan(loaded);
+        verify(bookingRepository, times(2)).findCleanerWindows(any(), any());
+    }
+
+    @Test
+    void bookingMadeThroughAnotherInstanceShowsUpOnceTheDayExpires() throws InterruptedException {
+        ScheduleIndex expiring = new ScheduleIndex(bookingRepository, seriesRepository,
+                new WorkingCalendarCache(shiftRepository, absenceRepository, Duration.ofMinutes(10)),
+                500, Duration.ofMillis(200));
+        when(bookingRepository.findCleanerWindows(any(), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new CleanerBookingWindow(1L, MONDAY.atTime(10, 0), MONDAY.atTime(12, 0))));
+
+        long loaded = expiring.version(MONDAY);
+        // Writes made here do not keep the day resident past its TTL
+        expiring.recordBooking(MONDAY.atTime(16, 0), MONDAY.atTime(18, 0), List.of(2L));
+        assertThat(expiring.busySlots(MONDAY, 1L)).isZero();
+        Thread.sleep(300);
+
+        assertThat(expiring.busySlots(MONDAY, 1L)).isNotZero();
+        assertThat(expiring.version(MONDAY)).isGreaterThan(loaded);
+    }
+}
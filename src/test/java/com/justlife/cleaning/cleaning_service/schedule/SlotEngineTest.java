@@ -0,0 +1,74 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SlotEngineTest {
+
+    @Test
+    void freeStarts_enumeratesEveryGridStartOnEmptyDay() {
+        SlotEngine engine = new SlotEngine(60);
+        int[] out = new int[engine.maxStarts()];
+
+        int count = engine.freeStarts(CleanerDay.FREE, 240, out);
+
+        assertThat(SlotEngine.toTimes(out, count))
+                .hasSize(11)
+                .startsWith(LocalTime.of(8, 0))
+                .endsWith(LocalTime.of(18, 0));
+    }
+
+    @Test
+    void freeStarts_appliesBreakAroundBookingsAndRoundsUpToGrid() {
+        SlotEngine engine = new SlotEngine(15);
+        int[] out = new int[engine.maxStarts()];
+        // 10:00-12:00 and 14:10-16:10, added out of order
+        CleanerDay day = CleanerDay.FREE.with(850, 970).with(600, 720);
+
+        int count = engine.freeStarts(day, 120, out);
+
+        // 08:00-10:00 would leave no break before 10:00; 12:30-14:30 none before 14:10
+        assertThat(SlotEngine.toTimes(out, count))
+                .startsWith(LocalTime.of(16, 45), LocalTime.of(17, 0))
+                .endsWith(LocalTime.of(20, 0))
+                .doesNotContain(LocalTime.of(8, 0), LocalTime.of(12, 30));
+    }
+
+    @Test
+    void freeStarts_requiresBreakBeforeNextBooking() {
+        SlotEngine engine = new SlotEngine(30);
+        int[] out = new int[engine.maxStarts()];
+        CleanerDay day = CleanerDay.FREE.with(630, 750);
+
+        int count = engine.freeStarts(day, 120, out);
+
+        assertThat(SlotEngine.toTimes(out, count))
+                .startsWith(LocalTime.of(8, 0), LocalTime.of(13, 0))
+                .doesNotContain(LocalTime.of(8, 30));
+    }
+
+    @Test
+    void freeStarts_toleratesOverlappingBookings() {
+        SlotEngine engine = new SlotEngine(30);
+        int[] out = new int[engine.maxStarts()];
+        int[] starts = {600, 540};
+        int[] ends = {900, 660};
+        SlotEngine.sortByStart(starts, ends, 2);
+
+        int count = engine.freeStarts(starts, ends, 2, 120, out);
+
+        assertThat(SlotEngine.toTimes(out, count))
+                .containsExactly(LocalTime.of(15, 30), LocalTime.of(16, 0), LocalTime.of(16, 30),
+                        LocalTime.of(17, 0), LocalTime.of(17, 30), LocalTime.of(18, 0),
+                        LocalTime.of(18, 30), LocalTime.of(19, 0), LocalTime.of(19, 30), LocalTime.of(20, 0));
+    }
+
+    @Test
+    void rejectsUnsupportedGranularity() {
+        assertThrows(IllegalArgumentException.class, () -> new SlotEngine(20));
+    }
+}
@@ -0,0 +1,57 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamSelectorTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 7, 7);
+    // 12:00-14:00 plus its break
+    private static final long NOON = ScheduleIndex.requested(DATE.atTime(12, 0), DATE.atTime(14, 0));
+
+    // Van 1: cleaner 1 busy 14:30-16:30, cleaner 2 free. Van 2: cleaner 3 busy 15:00-17:00, cleaner 4 free.
+    private static final Map<Long, List<Long>> VANS = Map.of(1L, List.of(1L, 2L), 2L, List.of(3L, 4L));
+    private static final Map<Long, CleanerDay> SCHEDULES = Map.of(
+            1L, CleanerDay.FREE.with(870, 990),
+            3L, CleanerDay.FREE.with(900, 1020));
+
+    @Test
+    void strandedSlots_countsGapsTooShortForABooking() {
+        assertThat(SlotMask.strandedSlots(0L, 4)).isZero();
+        assertThat(SlotMask.strandedSlots(SlotMask.ofMinutes(630, 900), 4)).isZero();
+        // 08:00-10:00 leaves no break before a 10:00 start, 08:00-09:00 is too short anyway
+        assertThat(SlotMask.strandedSlots(SlotMask.ofMinutes(600, 900), 4)).isEqualTo(4);
+        assertThat(SlotMask.strandedSlots(SlotMask.ofMinutes(540, 780), 4)).isEqualTo(2);
+        // a 2-hour tail needs no break slot after it
+        assertThat(SlotMask.strandedSlots(SlotMask.ofMinutes(480, 1200), 4)).isZero();
+    }
+
+    @Test
+    void best_prefersCleanerWhoseGapIsFilledExactly() {
+        TeamSelector.Team team = TeamSelector.best(VANS, SCHEDULES, NOON, 1, 4);
+
+        assertThat(team).isEqualTo(new TeamSelector.Team(1L, List.of(1L)));
+    }
+
+    @Test
+    void best_avoidsVanWhoseTeamWouldStrandSlots() {
+        // Cleaner 3 would be left with only 14:30-15:00 between the two bookings
+        TeamSelector.Team team = TeamSelector.best(VANS, SCHEDULES, NOON, 2, 4);
+
+        assertThat(team).isEqualTo(new TeamSelector.Team(1L, List.of(1L, 2L)));
+    }
+
+    @Test
+    void best_returnsNullWhenNoVanHasEnoughFreeCleaners() {
+        assertThat(TeamSelector.best(VANS, SCHEDULES, NOON, 3, 4)).isNull();
+        Map<Long, CleanerDay> oneBusyPerVan = Map.of(
+                2L, CleanerDay.FREE.with(720, 840),
+                4L, CleanerDay.FREE.with(720, 840));
+        assertThat(TeamSelector.best(VANS, oneBusyPerVan, NOON, 2, 4)).isNull();
+    }
+}
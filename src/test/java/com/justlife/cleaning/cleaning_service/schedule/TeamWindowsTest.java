@@ -0,0 +1,71 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamWindowsTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 7, 7);
+
+    // Cleaner 1 busy 10:00-12:00, cleaner 2 busy 14:00-16:00, cleaner 3 free
+    private static final Map<Long, CleanerDay> SCHEDULES = Map.of(
+            1L, CleanerDay.FREE.with(600, 720),
+            2L, CleanerDay.FREE.with(840, 960));
+
+    @Test
+    void freeStarts_matchesRequestedWindowCheckForEveryStart() {
+        CleanerDay day = CleanerDay.FREE.with(600, 720).with(1080, 1200);
+
+        for (int hours = 1; hours <= 6; hours++) {
+            long starts = SlotMask.freeStarts(day.busyMask(), hours * 2);
+            for (int slot = 0; slot < SlotMask.SLOTS_PER_DAY; slot++) {
+                LocalDateTime start = DATE.atTime(SlotMask.startOf(slot));
+                boolean fits = slot + hours * 2 <= SlotMask.SLOTS_PER_DAY
+                        && (day.busyMask() & ScheduleIndex.requested(start, start.plusHours(hours))) == 0;
+                assertThat((starts >>> slot & 1) == 1).as("%dh at %s", hours, start).isEqualTo(fits);
+            }
+        }
+    }
+
+    @Test
+    void without_keepsSlotsAnotherBookingShares() {
+        // 10:00-11:45 and 12:15-13:15 both reach into the 12:00 slot
+        CleanerDay day = CleanerDay.FREE.with(600, 705).with(735, 795);
+
+        CleanerDay cancelled = day.without(DATE.atTime(10, 0), DATE.atTime(11, 45));
+
+        assertThat(cancelled.size()).isEqualTo(1);
+        assertThat(cancelled.busyMask()).isEqualTo(CleanerDay.FREE.with(735, 795).busyMask());
+        assertThat(cancelled.busyMask() & ScheduleIndex.requested(DATE.atTime(12, 0), DATE.atTime(12, 30)))
+                .isNotZero();
+        assertThat(day.without(DATE.atTime(9, 0), DATE.atTime(11, 0))).isSameAs(day);
+    }
+
+    @Test
+    void starts_requiresTeamSizeCleanersFreeTogether() {
+        List<Long> van = List.of(1L, 2L, 3L);
+
+        assertThat(TeamWindows.toTimes(TeamWindows.starts(van, SCHEDULES, 4, 3)))
+                .containsExactly(LocalTime.of(16, 30), LocalTime.of(17, 0), LocalTime.of(17, 30),
+                        LocalTime.of(18, 0), LocalTime.of(18, 30), LocalTime.of(19, 0),
+                        LocalTime.of(19, 30), LocalTime.of(20, 0));
+        // any two of three: cleaner 3 pairs with whichever of the others is free
+        assertThat(TeamWindows.toTimes(TeamWindows.starts(van, SCHEDULES, 4, 2)))
+                .hasSize(24)
+                .startsWith(LocalTime.of(8, 0))
+                .contains(LocalTime.of(12, 30))
+                .endsWith(LocalTime.of(20, 0));
+    }
+
+    @Test
+    void starts_isEmptyWhenVanHasTooFewCleaners() {
+        assertThat(TeamWindows.starts(List.of(3L), SCHEDULES, 4, 2)).isZero();
+    }
+}
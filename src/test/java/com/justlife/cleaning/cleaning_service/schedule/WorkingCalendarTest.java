@@ -0,0 +1,147 @@
+package com.justlife.cleaning.cleaning_service.schedule;
+
+import com.justlife.cleaning.cleaning_service.domain.CleanerAbsence;
+import com.justlife.cleaning.cleaning_service.domain.CleanerShift;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkingCalendarTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+
+    @Test
+    void offDuty_isTheWorkingDayOutsideShiftsPlusAbsences() {
+        WorkingCalendar calendar = WorkingCalendar.of(
+                List.of(shift(1L, DayOfWeek.MONDAY, 10, 0, 14, 0), shift(1L, DayOfWeek.MONDAY, 13, 0, 20, 0)),
+                List.of(absence(1L, MONDAY.atTime(16, 0), MONDAY.atTime(17, 0)),
+                        absence(2L, MONDAY.minusDays(3).atTime(12, 0), MONDAY.atTime(9, 0))));
+
+        // Overlapping shifts merge to 10:00-20:00; the absence cuts an hour out of it
+        assertThat(calendar.offDuty(1L, MONDAY)).containsExactly(480, 600, 960, 1020, 1200, 1320);
+        assertThat(calendar.offDuty(1L, MONDAY.plusDays(1))).containsExactly(480, 1320);
+        assertThat(calendar.offDuty(2L, MONDAY)).containsExactly(480, 540);
+        assertThat(calendar.offDuty(3L, MONDAY)).isEmpty();
+        assertThat(calendar.offDuty(MONDAY)).containsOnlyKeys(1L, 2L);
+    }
+
+    @Test
+    void offDuty_widensStretchesShorterThanAnHour() {
+        WorkingCalendar calendar = WorkingCalendar.of(
+                List.of(shift(1L, DayOfWeek.MONDAY, 8, 30, 12, 0), shift(1L, DayOfWeek.MONDAY, 12, 30, 21, 30)),
+                List.of());
+
+        // The lunch break is widened to an hour; the half hour before the end of the day is not
+        assertThat(calendar.offDuty(1L, MONDAY)).containsExactly(480, 510, 720, 780, 1290, 1320);
+    }
+
+    @Test
+    void shiftEndingAtHalfPastNineTakesBookingsUpToItsEnd() {
+        WorkingCalendar calendar = WorkingCalendar.of(List.of(shift(1L, DayOfWeek.MONDAY, 12, 0, 21, 30)), List.of());
+        int[] off = calendar.offDuty(1L, MONDAY);
+        CleanerDay day = CleanerDay.FREE;
+        for (int i = 0; i < off.length; i += 2) {
+            day = day.off(off[i], off[i + 1]);
+        }
+        SlotEngine engine = new SlotEngine(30);
+        int[] out = new int[engine.maxStarts()];
+
+        List<LocalTime> byMask = new ArrayList<>();
+        List<LocalTime> byValidation = new ArrayList<>();
+        for (LocalTime t = LocalTime.of(8, 0); !t.isAfter(LocalTime.of(20, 0)); t = t.plusMinutes(30)) {
+            LocalDateTime start = MONDAY.atTime(t);
+            if ((day.busyMask() & ScheduleIndex.requested(start, start.plusHours(2))) == 0) {
+                byMask.add(t);
+            }
+            if (calendar.isWorking(1L, start, start.plusHours(2))) {
+                byValidation.add(t);
+            }
+        }
+
+        assertThat(off).containsExactly(480, 720, 1290, 1320);
+        assertThat(calendar.isWorking(1L, MONDAY.atTime(19, 30), MONDAY.atTime(21, 30))).isTrue();
+        assertThat(calendar.isWorking(1L, MONDAY.atTime(20, 0), MONDAY.atTime(22, 0))).isFalse();
+        assertThat(SlotEngine.toTimes(out, engine.freeStarts(day, 120, out)))
+                .startsWith(LocalTime.of(12, 0))
+                .endsWith(LocalTime.of(19, 30))
+                .hasSize(16)
+                .isEqualTo(byMask)
+                .isEqualTo(byValidation);
+    }
+
+    @Test
+    void slotEngineMasksAndValidationAgreeOnEveryStart() {
+        WorkingCalendar calendar = WorkingCalendar.of(
+                List.of(shift(1L, DayOfWeek.MONDAY, 10, 0, 13, 0), shift(1L, DayOfWeek.MONDAY, 13, 30, 21, 30)),
+                List.of(absence(1L, MONDAY.atTime(16, 0), MONDAY.atTime(17, 0))));
+        int[] off = calendar.offDuty(1L, MONDAY);
+        CleanerDay day = CleanerDay.FREE.with(1170, 1230);
+        for (int i = 0; i < off.length; i += 2) {
+            day = day.off(off[i], off[i + 1]);
+        }
+        SlotEngine engine = new SlotEngine(30);
+        int[] out = new int[engine.maxStarts()];
+
+        List<LocalTime> byMask = new ArrayList<>();
+        List<LocalTime> byValidation = new ArrayList<>();
+        for (LocalTime t = LocalTime.of(8, 0); !t.isAfter(LocalTime.of(20, 0)); t = t.plusMinutes(30)) {
+            LocalDateTime start = MONDAY.atTime(t);
+            if ((day.busyMask() & ScheduleIndex.requested(start, start.plusHours(2))) == 0) {
+                byMask.add(t);
+            }
+            if (calendar.isWorking(1L, start, start.plusHours(2))
+                    && (day.busyMask() & ScheduleIndex.requested(start, start.plusHours(2))) == 0) {
+                byValidation.add(t);
+            }
+        }
+
+        // Bookings may end right at an absence or shift end, but need a break before the 19:30 booking
+        assertThat(SlotEngine.toTimes(out, engine.freeStarts(day, 120, out)))
+                .containsExactly(LocalTime.of(10, 0), LocalTime.of(10, 30), LocalTime.of(11, 0),
+                        LocalTime.of(14, 0), LocalTime.of(17, 0))
+                .isEqualTo(byMask)
+                .isEqualTo(byValidation);
+    }
+
+    @Test
+    void cleanersWithoutShiftsOrAbsencesAlwaysWork() {
+        WorkingCalendar calendar = WorkingCalendar.of(List.of(shift(1L, DayOfWeek.MONDAY, 12, 0, 18, 0)), List.of());
+
+        assertThat(calendar.isWorking(2L, MONDAY.atTime(8, 0), MONDAY.atTime(12, 0))).isTrue();
+        assertThat(calendar.isWorking(1L, MONDAY.atTime(16, 0), MONDAY.atTime(18, 0))).isTrue();
+        assertThat(calendar.isWorking(1L, MONDAY.atTime(16, 30), MONDAY.atTime(18, 30))).isFalse();
+        assertThat(calendar.isWorking(1L, MONDAY.plusDays(1).atTime(12, 0), MONDAY.plusDays(1).atTime(14, 0)))
+                .isFalse();
+    }
+
+    @Test
+    void equalsComparesIntervalsSoAnUnchangedReloadMatches() {
+        List<CleanerShift> shifts = List.of(shift(1L, DayOfWeek.MONDAY, 12, 0, 18, 0));
+
+        assertThat(WorkingCalendar.of(shifts, List.of())).isEqualTo(WorkingCalendar.of(shifts, List.of()));
+        assertThat(WorkingCalendar.of(List.of(), List.of())).isEqualTo(WorkingCalendar.EMPTY);
+        assertThat(WorkingCalendar.of(shifts, List.of()))
+                .isNotEqualTo(WorkingCalendar.of(List.of(shift(1L, DayOfWeek.MONDAY, 12, 0, 17, 0)), List.of()));
+    }
+
+    private static CleanerShift shift(Long cleanerId, DayOfWeek day, int fromHour, int fromMinute,
+                                      int toHour, int toMinute) {
+        return CleanerShift.builder()
+                .cleanerId(cleanerId)
+                .dayOfWeek(day)
+                .startTime(LocalTime.of(fromHour, fromMinute))
+                .endTime(LocalTime.of(toHour, toMinute))
+                .build();
+    }
+
+    private static CleanerAbsence absence(Long cleanerId, LocalDateTime start, LocalDateTime end) {
+        return CleanerAbsence.builder().cleanerId(cleanerId).startTime(start).endTime(end).build();
+    }
+}
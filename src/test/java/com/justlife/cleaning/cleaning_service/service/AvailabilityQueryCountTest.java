@@ -0,0 +1,100 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Booking;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.PartitionExecutor;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({AvailabilityService.class, ScheduleIndex.class, SlotEngine.class, PartitionExecutor.class,
+        ReferenceDataCache.class, ReferenceDataInvalidator.class, WorkingCalendarCache.class,
+        AvailabilityResultCache.class, BookingRulesConfiguration.class, RegionConfiguration.class})
+class AvailabilityQueryCountTest {
+
+    private static final int CLEANERS_PER_VEHICLE = 5;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Test
+    void queryCountStaysFlatAsCleanerCountGrows() {
+        seed(0, 25, LocalDate.of(2025, 7, 7));
+        long small = statementsFor(LocalDate.of(2025, 7, 7));
+
+        seed(25, 2_500, LocalDate.of(2025, 7, 8));
+        long large = statementsFor(LocalDate.of(2025, 7, 8));
+
+        assertThat(small).isLessThanOrEqualTo(3);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long statementsFor(LocalDate date) {
+        em.flush();
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        availabilityService.getAvailableSlots(date, 2);
+        availabilityService.getAvailableCleanersForSlot(date, LocalTime.of(14, 0), 2);
+
+        return stats.getPrepareStatementCount();
+    }
+
+    // Cleaners [from, to), five per vehicle, each with one morning booking on the given date
+    private void seed(int from, int to, LocalDate date) {
+        Vehicle vehicle = null;
+        for (int i = from; i < to; i++) {
+            if (i % CLEANERS_PER_VEHICLE == 0) {
+                vehicle = em.persist(Vehicle.builder()
+                        .id((long) i / CLEANERS_PER_VEHICLE + 1)
+                        .label("Van " + i / CLEANERS_PER_VEHICLE)
+                        .build());
+            }
+            Cleaner cleaner = em.persist(Cleaner.builder()
+                    .id((long) i + 1)
+                    .name("Cleaner " + i)
+                    .vehicle(vehicle)
+                    .build());
+            em.persist(Booking.builder()
+                    .startTime(date.atTime(9, 0))
+                    .endTime(date.atTime(11, 0))
+                    .durationH(2)
+                    .customer("Customer " + i)
+                    .vehicle(vehicle)
+                    .cleaners(List.of(cleaner))
+                    .build());
+        }
+    }
+}
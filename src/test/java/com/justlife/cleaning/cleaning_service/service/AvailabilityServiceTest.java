@@ -1,19 +1,41 @@
 package com.justlife.cleaning.cleaning_service.service;
 
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.Versioned;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
 import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.CleanerAbsence;
+import com.justlife.cleaning.cleaning_service.domain.CleanerShift;
+import com.justlife.cleaning.cleaning_service.dto.AvailabilitySlot;
+import com.justlife.cleaning.cleaning_service.dto.DailyAvailability;
+import com.justlife.cleaning.cleaning_service.dto.TeamAvailability;
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
 import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
-import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.BookingSeriesRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerAbsenceRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow;
+import com.justlife.cleaning.cleaning_service.repository.CleanerShiftRepository;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleBook;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleProperties;
+import com.justlife.cleaning.cleaning_service.schedule.PartitionExecutor;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -21,12 +43,24 @@ import static org.mockito.Mockito.*;
 class AvailabilityServiceTest {
 
     @Mock
-    private CleanerRepository cleanerRepository;
+    private ReferenceDataCache referenceData;
 
     @Mock
     private BookingRepository bookingRepository;
 
-    @InjectMocks
+    @Mock
+    private BookingSeriesRepository seriesRepository;
+
+    @Mock
+    private CleanerShiftRepository shiftRepository;
+
+    @Mock
+    private CleanerAbsenceRepository absenceRepository;
+
+    private WorkingCalendarCache workingCalendar;
+
+    private ScheduleIndex scheduleIndex;
+
     private AvailabilityService availabilityService;
 
     private Cleaner sampleCleaner;
@@ -34,6 +68,12 @@ class AvailabilityServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        workingCalendar = new WorkingCalendarCache(shiftRepository, absenceRepository, Duration.ofMinutes(10));
+        scheduleIndex = new ScheduleIndex(bookingRepository, seriesRepository, workingCalendar, 500,
+                Duration.ofMinutes(30));
+        availabilityService = new AvailabilityService(referenceData, bookingRepository, scheduleIndex,
+                new SlotEngine(30), new AvailabilityResultCache(scheduleIndex, referenceData, 100),
+                new PartitionExecutor("serial"), BookingRuleBook.DEFAULT);
         sampleCleaner = Cleaner.builder()
                 .id(1L)
                 .name("Test Cleaner")
@@ -43,11 +83,11 @@ class AvailabilityServiceTest {
 
     @Test
     void getAvailableSlots_shouldReturnFullDayWhenNoBookings() {
-        LocalDate date = LocalDate.now();
+        LocalDate date = LocalDate.of(2025, 7, 7);
         int durationHours = 2;
 
-        when(cleanerRepository.findAll()).thenReturn(List.of(sampleCleaner));
-        when(bookingRepository.findByStartTimeBetween(any(), any())).thenReturn(Collections.emptyList());
+        when(referenceData.cleanersPerVehicle()).thenReturn(List.of(List.of(sampleCleaner)));
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(Collections.emptyList());
 
         Map<Cleaner, List<LocalTime>> result = availabilityService.getAvailableSlots(date, durationHours);
 
@@ -55,17 +95,203 @@ class AvailabilityServiceTest {
         assertThat(result.get(sampleCleaner)).isNotEmpty();
     }
 
+    @Test
+    void getAvailableSlots_shouldFollowTheOpeningHoursOfTheCallersRegion() {
+        BookingRuleProperties.Region gulf = new BookingRuleProperties.Region();
+        gulf.setOpens("09:00");
+        BookingRuleProperties properties = new BookingRuleProperties();
+        properties.setRegions(Map.of("gulf", gulf));
+        AvailabilityService regional = new AvailabilityService(referenceData, bookingRepository, scheduleIndex,
+                new SlotEngine(30), new AvailabilityResultCache(scheduleIndex, referenceData, 100),
+                new PartitionExecutor("fork-join"), BookingRuleBook.compile(properties));
+        LocalDate date = LocalDate.of(2025, 7, 7);
+        Cleaner otherVan = Cleaner.builder().id(2L).name("Other Van").build();
+
+        when(referenceData.cleanersPerVehicle()).thenReturn(List.of(List.of(sampleCleaner), List.of(otherVan)));
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(Collections.emptyList());
+
+        assertThat(regional.getAvailableSlots(date, 2).values())
+                .allSatisfy(starts -> assertThat(starts).startsWith(LocalTime.of(8, 0)));
+        // The second van runs on a pool thread bound to no region and still gets the caller's hours
+        assertThat(RegionContext.call("gulf", () -> regional.getAvailableSlots(date, 2)).values())
+                .hasSize(2)
+                .allSatisfy(starts -> assertThat(starts).startsWith(LocalTime.of(9, 0)));
+    }
+
+    @Test
+    void getAvailableSlots_shouldReportEveryStartAroundBooking() {
+        LocalDate date = LocalDate.of(2025, 7, 7);
+        CleanerBookingWindow booking = new CleanerBookingWindow(
+                sampleCleaner.getId(), date.atTime(10, 0), date.atTime(12, 0));
+
+        when(referenceData.cleanersPerVehicle()).thenReturn(List.of(List.of(sampleCleaner)));
+        when(bookingRepository.findCleanerWindows(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
+
+        Map<Cleaner, List<LocalTime>> result = availabilityService.getAvailableSlots(date, 2);
+
+        // 08:00-10:00 would leave no break before the 10:00 booking
+        assertThat(result.get(sampleCleaner))
+                .startsWith(LocalTime.of(12, 30), LocalTime.of(13, 0))
+                .endsWith(LocalTime.of(20, 0))
+                .hasSize(16);
+    }
+
+    @Test
+    void availability_followsTheSameRulesAsBookingValidation() {
+        LocalDate friday = LocalDate.of(2025, 7, 11);
+
+        assertThat(availabilityService.getAvailableSlots(friday, 2)).isEmpty();
+        assertThat(availabilityService.getAvailableSlots(LocalDate.of(2025, 7, 7), 3)).isEmpty();
+        assertThat(availabilityService.getAvailableCleanersForSlot(friday, LocalTime.of(10, 0), 2)).isEmpty();
+        verifyNoInteractions(referenceData, bookingRepository);
+    }
+
+    @Test
+    void availability_keepsToShiftsAndAbsences() {
+        LocalDate date = LocalDate.of(2025, 7, 7);
+        Cleaner onLeave = Cleaner.builder().id(2L).name("On Leave").build();
+        when(shiftRepository.findAll()).thenReturn(List.of(CleanerShift.builder()
+                .cleanerId(1L).dayOfWeek(DayOfWeek.MONDAY)
+                .startTime(LocalTime.of(12, 0)).endTime(LocalTime.of(18, 0)).build()));
+        when(absenceRepository.findEndingAfter(any())).thenReturn(List.of(CleanerAbsence.builder()
+                .cleanerId(2L).startTime(date.atTime(0, 0)).endTime(date.plusDays(1).atTime(0, 0)).build()));
+        when(referenceData.cleanersPerVehicle()).thenReturn(List.of(List.of(sampleCleaner, onLeave)));
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(Collections.emptyList());
+        String before = availabilityService.availabilityTag(date);
+        workingCalendar.invalidate();
+
+        // A shift ending at 18:00 needs no break after the last booking, unlike a booking would
+        assertThat(availabilityService.getAvailableSlots(date, 2))
+                .containsOnlyKeys(sampleCleaner)
+                .containsEntry(sampleCleaner, List.of(LocalTime.of(12, 0), LocalTime.of(12, 30), LocalTime.of(13, 0),
+                        LocalTime.of(13, 30), LocalTime.of(14, 0), LocalTime.of(14, 30), LocalTime.of(15, 0),
+                        LocalTime.of(15, 30), LocalTime.of(16, 0)));
+        assertThat(availabilityService.getAvailableCleanersForSlot(date, LocalTime.of(10, 0), 2)).isEmpty();
+        assertThat(availabilityService.getAvailableCleanersForSlot(date.plusDays(1), LocalTime.of(10, 0), 2))
+                .containsExactly(onLeave);
+        assertThat(availabilityService.availabilityTag(date)).isNotEqualTo(before);
+    }
+
     @Test
     void getAvailableCleanersForSlot_shouldReturnCleanerWhenNoOverlap() {
-        LocalDate date = LocalDate.now();
+        LocalDate date = LocalDate.of(2025, 7, 7);
         LocalTime time = LocalTime.of(10, 0);
 
-        when(cleanerRepository.findAll()).thenReturn(List.of(sampleCleaner));
-        when(bookingRepository.hasOverlap(eq(sampleCleaner), any(), any(), isNull())).thenReturn(false);
+        when(referenceData.cleanersPerVehicle()).thenReturn(List.of(List.of(sampleCleaner)));
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(Collections.emptyList());
 
         List<Cleaner> result = availabilityService.getAvailableCleanersForSlot(date, time, 2);
 
         assertThat(result).containsExactly(sampleCleaner);
     }
 
+    @Test
+    void getAvailableCleanersForSlot_shouldExcludeCleanerStillOnBreak() {
+        LocalDate date = LocalDate.of(2025, 7, 7);
+        CleanerBookingWindow booking = new CleanerBookingWindow(
+                sampleCleaner.getId(), date.atTime(8, 0), date.atTime(10, 0));
+
+        when(referenceData.cleanersPerVehicle()).thenReturn(List.of(List.of(sampleCleaner)));
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(List.of(booking));
+
+        assertThat(availabilityService.getAvailableCleanersForSlot(date, LocalTime.of(10, 0), 2)).isEmpty();
+        assertThat(availabilityService.getAvailableCleanersForSlot(date, LocalTime.of(10, 30), 2))
+                .containsExactly(sampleCleaner);
+        verify(bookingRepository, times(1)).findCleanerWindows(any(), any());
+    }
+
+    @Test
+    void getAvailableSlots_mergesVehiclePartitionsInVehicleOrder() {
+        LocalDate date = LocalDate.of(2025, 7, 7);
+        List<List<Cleaner>> vans = new ArrayList<>();
+        for (long v = 1; v <= 8; v++) {
+            List<Cleaner> van = new ArrayList<>();
+            for (long c = 1; c <= 3; c++) {
+                van.add(Cleaner.builder().id(v * 10 + c).name("Cleaner " + v + c).build());
+            }
+            vans.add(van);
+        }
+        // Van 3 is fully booked and drops out of both answers
+        List<CleanerBookingWindow> bookings = vans.get(2).stream()
+                .map(c -> new CleanerBookingWindow(c.getId(), date.atTime(8, 0), date.atTime(22, 0)))
+                .toList();
+
+        when(referenceData.cleanersPerVehicle()).thenReturn(vans);
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(bookings);
+        AvailabilityService forkJoin = new AvailabilityService(referenceData, bookingRepository, scheduleIndex,
+                new SlotEngine(30), new AvailabilityResultCache(scheduleIndex, referenceData, 100),
+                new PartitionExecutor("fork-join"), BookingRuleBook.DEFAULT);
+
+        Map<Cleaner, List<LocalTime>> serial = availabilityService.getAvailableSlots(date, 2);
+        Map<Cleaner, List<LocalTime>> parallel = forkJoin.getAvailableSlots(date, 2);
+
+        assertThat(parallel.keySet()).extracting(Cleaner::getId)
+                .hasSize(21)
+                .isSorted()
+                .containsExactlyElementsOf(serial.keySet().stream().map(Cleaner::getId).toList());
+        assertThat(forkJoin.getAvailableCleanersForSlot(date, LocalTime.of(10, 0), 2))
+                .containsExactlyElementsOf(serial.keySet());
+    }
+
+    @Test
+    void getTeamAvailability_listsVansWithEnoughCleanersFreeTogether() {
+        LocalDate date = LocalDate.of(2025, 7, 7);
+        // Van 10: cleaners 1 and 2, cleaner 2 busy 08:00-20:00. Van 20: cleaners 3 and 4, both free.
+        when(referenceData.cleanersByVehicle()).thenReturn(Map.of(20L, List.of(3L, 4L), 10L, List.of(1L, 2L)));
+        when(bookingRepository.findCleanerWindows(any(), any()))
+                .thenReturn(List.of(new CleanerBookingWindow(2L, date.atTime(8, 0), date.atTime(20, 0))));
+
+        List<TeamAvailability> pairs = availabilityService.getTeamAvailability(date, 2, 2).value();
+        List<TeamAvailability> singles = availabilityService.getTeamAvailability(date, 2, 1).value();
+
+        assertThat(pairs).extracting(TeamAvailability::vehicleId).containsExactly(20L);
+        assertThat(pairs.get(0).startTimes()).hasSize(25).startsWith(LocalTime.of(8, 0)).endsWith(LocalTime.of(20, 0));
+        assertThat(singles).extracting(TeamAvailability::vehicleId).containsExactly(10L, 20L);
+    }
+
+    @Test
+    void getDailyAvailability_servesCachedAnswerUntilBookingCommits() {
+        LocalDate date = LocalDate.of(2025, 7, 7);
+
+        when(referenceData.cleanersPerVehicle()).thenReturn(List.of(List.of(sampleCleaner)));
+        when(bookingRepository.findCleanerWindows(any(), any())).thenReturn(Collections.emptyList());
+
+        Versioned<List<AvailabilitySlot>> first = availabilityService.getDailyAvailability(date, 2);
+        Versioned<List<AvailabilitySlot>> second = availabilityService.getDailyAvailability(date, 2);
+
+        assertThat(second).isSameAs(first);
+        assertThat(availabilityService.availabilityTag(date)).isEqualTo(first.etag());
+        verify(referenceData, times(1)).cleanersPerVehicle();
+
+        scheduleIndex.recordBooking(date.atTime(8, 0), date.atTime(20, 0), List.of(sampleCleaner.getId()));
+        Versioned<List<AvailabilitySlot>> third = availabilityService.getDailyAvailability(date, 2);
+
+        assertThat(third.etag()).isNotEqualTo(first.etag());
+        assertThat(third.value()).isEmpty();
+        assertThat(availabilityService.getDailyAvailability(date.plusDays(1), 2).value()).hasSize(1);
+    }
+
+    @Test
+    void streamAvailableSlots_emitsEveryDayOfRangeFromOneQuery() {
+        LocalDate from = LocalDate.of(2025, 7, 7);
+        LocalDate to = from.plusDays(2);
+        CleanerBookingWindow booking = new CleanerBookingWindow(
+                sampleCleaner.getId(), from.plusDays(1).atTime(8, 0), from.plusDays(1).atTime(20, 0));
+
+        when(referenceData.allCleaners()).thenReturn(List.of(sampleCleaner));
+        when(bookingRepository.streamCleanerWindows(from.atStartOfDay(), to.plusDays(1).atStartOfDay()))
+                .thenReturn(Stream.of(booking));
+
+        List<DailyAvailability> days = new ArrayList<>();
+        availabilityService.streamAvailableSlots(from, to, 4, days::add);
+
+        assertThat(days).extracting(DailyAvailability::date)
+                .containsExactly(from, from.plusDays(1), to);
+        assertThat(days.get(0).slots()).hasSize(1);
+        assertThat(days.get(1).slots()).isEmpty();
+        assertThat(days.get(2).slots()).hasSize(1);
+        verify(bookingRepository, times(1)).streamCleanerWindows(any(), any());
+    }
+
 }
\ No newline at end of file
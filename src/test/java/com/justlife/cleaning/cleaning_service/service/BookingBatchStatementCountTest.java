@@ -0,0 +1,93 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.dto.BookingBatchResponse;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A 1,000-item batch must cost at least ten times fewer JDBC statements than 1,000 single creates,
+// which need one overlap query and two inserts each.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({BookingService.class, BookingOutbox.class, ScheduleIndex.class, CleanerLockManager.class,
+        ReferenceDataCache.class, ReferenceDataInvalidator.class, WorkingCalendarCache.class,
+        BookingRulesConfiguration.class, RegionConfiguration.class})
+class BookingBatchStatementCountTest {
+
+    private static final int ITEMS = 1_000;
+    private static final int CLEANERS = 200;
+    private static final int CLEANERS_PER_VEHICLE = 5;
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void thousandItemBatchUsesBatchedInserts() {
+        seed();
+        List<BookingCreateRequest> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new BookingCreateRequest(MONDAY.plusWeeks(i / CLEANERS), LocalTime.of(10, 0), 2,
+                    "Corporate", List.of((long) i % CLEANERS + 1)));
+        }
+        em.flush();
+        em.clear();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        BookingBatchResponse resp = bookingService.createBatch(items);
+        em.flush();
+
+        assertThat(resp.accepted()).isEqualTo(ITEMS);
+        assertThat(stats.getPrepareStatementCount()).isLessThan(ITEMS * 3 / 10);
+    }
+
+    private void seed() {
+        Vehicle vehicle = null;
+        for (int i = 0; i < CLEANERS; i++) {
+            if (i % CLEANERS_PER_VEHICLE == 0) {
+                vehicle = em.persist(Vehicle.builder()
+                        .id((long) i / CLEANERS_PER_VEHICLE + 1)
+                        .label("Van " + i / CLEANERS_PER_VEHICLE)
+                        .build());
+            }
+            em.persist(Cleaner.builder()
+                    .id((long) i + 1)
+                    .name("Cleaner " + i)
+                    .vehicle(vehicle)
+                    .build());
+        }
+    }
+}
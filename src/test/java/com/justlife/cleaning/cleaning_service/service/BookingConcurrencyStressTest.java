@@ -0,0 +1,153 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.exception.BookingValidationException;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.VehicleRepository;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Fires random bookings from many threads at a small fleet so most of them contend for the same
+// cleaners, then checks the committed schedule: no cleaner may have overlapping bookings or a
+// break shorter than 30 minutes. Every attempt that passes the request rules takes the cleaner locks once.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookingService.class, BookingOutbox.class, ScheduleIndex.class, CleanerLockManager.class,
+        ReferenceDataCache.class, ReferenceDataInvalidator.class, WorkingCalendarCache.class,
+        BookingRulesConfiguration.class, RegionConfiguration.class})
+class BookingConcurrencyStressTest {
+
+    private static final int ATTEMPTS = 10_000;
+    private static final int THREADS = 32;
+    private static final int VEHICLES = 2;
+    private static final int CLEANERS_PER_VEHICLE = 5;
+    private static final int DAYS = 4;
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+
+    @Autowired private BookingService bookingService;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private CleanerRepository cleanerRepository;
+    @Autowired private VehicleRepository vehicleRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void addRegistry() {
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void removeRegistry() {
+        Metrics.removeRegistry(registry);
+    }
+
+    @Test
+    void concurrentRandomBookingsNeverOverlap() throws Exception {
+        seedFleet();
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger busy = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            futures.add(pool.submit(() -> {
+                try {
+                    bookingService.create(randomRequest(ThreadLocalRandom.current()));
+                    accepted.incrementAndGet();
+                } catch (BookingValidationException e) {
+                    rejected.incrementAndGet();
+                    if (e.getRule().equals("cleaner-busy")) {
+                        busy.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        Map<Long, List<CleanerBookingWindow>> byCleaner = new HashMap<>();
+        for (CleanerBookingWindow w : bookingRepository.findCleanerWindows(
+                MONDAY.atStartOfDay(), MONDAY.plusDays(DAYS).atStartOfDay())) {
+            byCleaner.computeIfAbsent(w.cleanerId(), k -> new ArrayList<>()).add(w);
+        }
+        for (List<CleanerBookingWindow> windows : byCleaner.values()) {
+            windows.sort(Comparator.comparing(CleanerBookingWindow::startTime));
+            for (int i = 1; i < windows.size(); i++) {
+                assertThat(windows.get(i).startTime())
+                        .isAfterOrEqualTo(windows.get(i - 1).endTime().plusMinutes(30));
+            }
+        }
+
+        assertThat(accepted.get() + rejected.get()).isEqualTo(ATTEMPTS);
+        assertThat(accepted.get()).isPositive();
+        assertThat(bookingRepository.count()).isEqualTo(accepted.get());
+
+        // Only accepted bookings and those the overlap check turned away got as far as the locks
+        long acquisitions = registry.get("booking.lock.wait").timers().stream().mapToLong(Timer::count).sum();
+        assertThat(acquisitions).isEqualTo(accepted.get() + busy.get());
+        assertThat(registry.get("booking.lock.wait").tag("contended", "true").timer().count()).isPositive();
+    }
+
+    private void seedFleet() {
+        for (long v = 1; v <= VEHICLES; v++) {
+            Vehicle vehicle = vehicleRepository.save(Vehicle.builder().id(v).label("Van " + v).build());
+            for (long c = 1; c <= CLEANERS_PER_VEHICLE; c++) {
+                cleanerRepository.save(Cleaner.builder()
+                        .id(v * 100 + c)
+                        .name("Cleaner " + v + c)
+                        .vehicle(vehicle)
+                        .build());
+            }
+        }
+    }
+
+    private static BookingCreateRequest randomRequest(ThreadLocalRandom random) {
+        long vehicle = 1 + random.nextInt(VEHICLES);
+        List<Long> team = new ArrayList<>();
+        for (long c = 1; c <= CLEANERS_PER_VEHICLE; c++) {
+            team.add(vehicle * 100 + c);
+        }
+        Collections.shuffle(team, random);
+        return new BookingCreateRequest(
+                MONDAY.plusDays(random.nextInt(DAYS)),
+                LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(25)),
+                random.nextBoolean() ? 2 : 4,
+                "Stress " + random.nextInt(1_000),
+                List.copyOf(team.subList(0, 1 + random.nextInt(3))));
+    }
+}
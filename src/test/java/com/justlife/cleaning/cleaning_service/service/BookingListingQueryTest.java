@@ -0,0 +1,159 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingPage;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.dto.BookingSearch;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Pages through bookings with a small limit: every booking is listed once, in (startTime, id) order,
+// with all of its cleaners, and each page is a single statement.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({BookingService.class, BookingOutbox.class, BookingExportService.class, ScheduleIndex.class,
+        CleanerLockManager.class, ReferenceDataCache.class, ReferenceDataInvalidator.class, WorkingCalendarCache.class,
+        BookingRulesConfiguration.class, RegionConfiguration.class})
+class BookingListingQueryTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 7, 7);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Test
+    void pagesCoverEveryBookingOnceInKeyOrder() {
+        seed();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+
+        List<BookingResponse> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            stats.clear();
+            BookingPage page = bookingService.search(
+                    new BookingSearch(MONDAY, MONDAY.plusDays(3), null, null, null, cursor, 7));
+            assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+            listed.addAll(page.bookings());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // 4 days x 3 starts x 2 vans
+        assertThat(listed).hasSize(24);
+        assertThat(pages).isEqualTo(4);
+        assertThat(listed).extracting(BookingResponse::id).doesNotHaveDuplicates();
+        assertThat(listed).isSortedAccordingTo(
+                Comparator.comparing(BookingResponse::startTime).thenComparing(BookingResponse::id));
+        assertThat(listed).allSatisfy(b -> assertThat(b.cleanerIds()).hasSize(2));
+    }
+
+    @Test
+    void filtersKeepEveryCleanerOfMatchingBookings() {
+        seed();
+
+        BookingPage byCleaner = bookingService.search(
+                new BookingSearch(MONDAY, MONDAY, 102L, null, null, null, 50));
+        BookingPage byVehicleAndCustomer = bookingService.search(
+                new BookingSearch(MONDAY, MONDAY.plusDays(3), null, 2L, "acme", null, 50));
+
+        assertThat(byCleaner.bookings()).hasSize(3)
+                .allSatisfy(b -> assertThat(b.cleanerIds()).containsExactly(101L, 102L));
+        assertThat(byCleaner.nextCursor()).isNull();
+        assertThat(byVehicleAndCustomer.bookings()).hasSize(4)
+                .allSatisfy(b -> assertThat(b.customer()).isEqualTo("ACME Ltd"));
+    }
+
+    @Test
+    void exportStreamsTheSameRowsAsTheListing() {
+        seed();
+
+        List<BookingResponse> exported = new ArrayList<>();
+        bookingExportService.export(MONDAY.plusDays(1), MONDAY.plusDays(2), exported::add);
+        BookingPage listed = bookingService.search(
+                new BookingSearch(MONDAY.plusDays(1), MONDAY.plusDays(2), null, null, null, null, 50));
+
+        assertThat(exported).hasSize(12).containsExactlyElementsOf(listed.bookings());
+    }
+
+    @Test
+    void cancelledBookingsLeaveListingsAndFreeTheirCleaners() {
+        seed();
+        List<Long> monday = bookingService.search(
+                new BookingSearch(MONDAY, MONDAY, null, null, null, null, 50)).bookings().stream()
+                .map(BookingResponse::id).toList();
+
+        assertThat(bookingService.cancel(List.of(monday.get(0), monday.get(1), -1L)))
+                .containsExactly(monday.get(0), monday.get(1));
+        assertThat(bookingService.cancel(List.of(monday.get(0)))).isEmpty();
+        em.clear();
+
+        assertThat(bookingService.search(new BookingSearch(MONDAY, MONDAY, null, null, null, null, 50)).bookings())
+                .extracting(BookingResponse::id).hasSize(4).doesNotContain(monday.get(0), monday.get(1));
+        // Both 08:00 vans are free again
+        BookingResponse rebooked = bookingService.create(
+                new BookingCreateRequest(MONDAY, LocalTime.of(8, 0), 2, "Rebooked", List.of(101L, 102L)));
+        assertThat(rebooked.id()).isNotIn(monday);
+    }
+
+    // Two vans of two cleaners, each booked at 08:00, 12:00 and 16:00 Monday to Thursday
+    private void seed() {
+        for (long v = 1; v <= 2; v++) {
+            Vehicle vehicle = em.persist(Vehicle.builder().id(v).label("Van " + v).build());
+            for (long c = 1; c <= 2; c++) {
+                em.persist(Cleaner.builder().id(v * 100 + c).name("Cleaner " + v + c).vehicle(vehicle).build());
+            }
+        }
+        em.flush();
+
+        List<BookingCreateRequest> items = new ArrayList<>();
+        for (int day = 0; day < 4; day++) {
+            for (int hour = 8; hour <= 16; hour += 4) {
+                for (long v = 1; v <= 2; v++) {
+                    String customer = v == 2 && hour == 8 ? "ACME Ltd" : "Customer " + day + hour;
+                    items.add(new BookingCreateRequest(MONDAY.plusDays(day), LocalTime.of(hour, 0), 2, customer,
+                            List.of(v * 100 + 1, v * 100 + 2)));
+                }
+            }
+        }
+        bookingService.createBatch(items);
+        em.flush();
+        em.clear();
+    }
+}
@@ -0,0 +1,134 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Booking;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.dto.BookingUpdateRequest;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.repository.BookingRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerBookingWindow;
+import com.justlife.cleaning.cleaning_service.repository.CleanerRepository;
+import com.justlife.cleaning.cleaning_service.repository.VehicleRepository;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Runs the Flyway migrations against a real PostgreSQL, so Hibernate validates its mappings against them and the
+// booking_cleaner_no_overlap constraint (V2) is the one deciding. Skipped where Docker is not available.
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookingService.class, BookingOutbox.class, ScheduleIndex.class, CleanerLockManager.class,
+        ReferenceDataCache.class, ReferenceDataInvalidator.class, WorkingCalendarCache.class,
+        BookingRulesConfiguration.class, RegionConfiguration.class})
+class BookingOverlapConstraintTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 7, 8);
+
+    @Autowired private BookingService bookingService;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private CleanerRepository cleanerRepository;
+    @Autowired private VehicleRepository vehicleRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    // Two instances booking the same cleaner at once: neither sees the other's uncommitted row in its pre-check,
+    // so this goes straight to the repositories, and only the constraint stands between them
+    @Test
+    void overlappingBookingsRaceAndExactlyOneCommits() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CyclicBarrier start = new CyclicBarrier(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<Long>> attempts = new ArrayList<>();
+        for (LocalTime startTime : List.of(LocalTime.of(10, 0), LocalTime.of(11, 0))) {
+            attempts.add(pool.submit(() -> {
+                start.await(10, TimeUnit.SECONDS);
+                return tx.execute(status -> bookingRepository.saveAndFlush(booking(startTime, 101L)).getId());
+            }));
+        }
+
+        List<Long> committed = new ArrayList<>();
+        List<Throwable> rejected = new ArrayList<>();
+        for (Future<Long> attempt : attempts) {
+            try {
+                committed.add(attempt.get(1, TimeUnit.MINUTES));
+            } catch (ExecutionException e) {
+                rejected.add(e.getCause());
+            }
+        }
+        pool.shutdown();
+
+        assertThat(committed).hasSize(1);
+        assertThat(rejected).singleElement().isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(bookingRepository.findCleanerWindows(MONDAY.atStartOfDay(), MONDAY.plusDays(1).atStartOfDay()))
+                .hasSize(1);
+    }
+
+    // The cleaner swapped out is busy at the new time; only the one swapped in has to be free there
+    @Test
+    void updateMovingABookingAndSwappingItsCleanerCommits() {
+        LocalDate monday = MONDAY.plusWeeks(1);
+        BookingResponse moving = bookingService.create(
+                new BookingCreateRequest(monday, LocalTime.of(10, 0), 2, "Moving", List.of(101L)));
+        bookingService.create(new BookingCreateRequest(monday, LocalTime.of(14, 0), 2, "Staying", List.of(101L)));
+
+        BookingResponse moved = bookingService.update(moving.id(),
+                new BookingUpdateRequest(null, LocalTime.of(14, 0), null, List.of(102L)));
+
+        assertThat(moved.startTime()).isEqualTo(monday.atTime(14, 0));
+        assertThat(moved.cleanerIds()).containsExactly(102L);
+        assertThat(bookingRepository.findCleanerWindows(monday.atStartOfDay(), monday.plusDays(1).atStartOfDay()))
+                .extracting(CleanerBookingWindow::cleanerId, CleanerBookingWindow::startTime)
+                .containsExactlyInAnyOrder(
+                        tuple(101L, monday.atTime(14, 0)),
+                        tuple(102L, monday.atTime(14, 0)));
+    }
+
+    private Booking booking(LocalTime startTime, long cleanerId) {
+        LocalDateTime start = MONDAY.atTime(startTime);
+        return Booking.builder()
+                .startTime(start)
+                .endTime(start.plusHours(2))
+                .durationH(2)
+                .customer("Race " + startTime)
+                .vehicle(vehicleRepository.getReferenceById(1L))
+                .cleaners(new ArrayList<>(List.of(cleanerRepository.getReferenceById(cleanerId))))
+                .build();
+    }
+}
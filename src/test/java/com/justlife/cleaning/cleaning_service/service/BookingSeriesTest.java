@@ -0,0 +1,175 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.AvailabilityResultCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataInvalidator;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.Booking;
+import com.justlife.cleaning.cleaning_service.domain.BookingSeries;
+import com.justlife.cleaning.cleaning_service.domain.Cleaner;
+import com.justlife.cleaning.cleaning_service.domain.Vehicle;
+import com.justlife.cleaning.cleaning_service.dto.AvailabilitySlot;
+import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.dto.BookingSearch;
+import com.justlife.cleaning.cleaning_service.dto.BookingSeriesRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingSeriesResponse;
+import com.justlife.cleaning.cleaning_service.dto.DailyAvailability;
+import com.justlife.cleaning.cleaning_service.exception.BookingValidationException;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.region.RegionConfiguration;
+import com.justlife.cleaning.cleaning_service.repository.BookingSeriesRepository;
+import com.justlife.cleaning.cleaning_service.rules.BookingRulesConfiguration;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.PartitionExecutor;
+import com.justlife.cleaning.cleaning_service.schedule.Recurrence;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import com.justlife.cleaning.cleaning_service.schedule.SlotEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A weekly 10:00 series for cleaner 101 over twelve Mondays from next Monday: the occurrences within four weeks
+// are written as bookings, the later ones stay virtual but still block availability and other bookings.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({BookingService.class, BookingOutbox.class, AvailabilityService.class, ScheduleIndex.class, SlotEngine.class,
+        PartitionExecutor.class, CleanerLockManager.class, ReferenceDataCache.class, ReferenceDataInvalidator.class,
+        WorkingCalendarCache.class, AvailabilityResultCache.class, BookingRulesConfiguration.class,
+        RegionConfiguration.class})
+class BookingSeriesTest {
+
+    private static final LocalDate MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    private static final LocalDate LAST = MONDAY.plusWeeks(11);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private BookingSeriesRepository seriesRepository;
+
+    @Test
+    void writesTheRollingWindowAndKeepsLaterOccurrencesVirtual() {
+        seed();
+
+        BookingSeriesResponse series = bookingService.createSeries(weekly());
+        em.flush();
+        em.clear();
+
+        assertThat(series.occurrences()).isEqualTo(12);
+        assertThat(series.materializedThrough()).isEqualTo(LocalDate.now().plusWeeks(4));
+        assertThat(series.bookings()).extracting(b -> b.startTime().toLocalDate())
+                .containsExactly(MONDAY, MONDAY.plusWeeks(1), MONDAY.plusWeeks(2), MONDAY.plusWeeks(3));
+        assertThat(bookingService.search(new BookingSearch(MONDAY, LAST, null, null, null, null, 50)).bookings())
+                .extracting(BookingResponse::id)
+                .containsExactlyElementsOf(series.bookings().stream().map(BookingResponse::id).toList());
+
+        // Week 8 is virtual: cleaner 101 is taken at 10:00 there, cleaner 102 is not
+        LocalDate virtual = MONDAY.plusWeeks(8);
+        assertThat(availabilityService.getCleanerIdsForSlot(virtual, LocalTime.of(10, 0), 2).value())
+                .containsExactly(102L);
+        List<DailyAvailability> days = new ArrayList<>();
+        availabilityService.streamAvailableSlots(virtual, virtual.plusDays(1), 2, days::add);
+        assertThat(startsOf(days.get(0), 101L)).doesNotContain(LocalTime.of(10, 0), LocalTime.of(11, 0));
+        assertThat(startsOf(days.get(1), 101L)).contains(LocalTime.of(10, 0));
+
+        BookingValidationException ex = assertThrows(BookingValidationException.class, () -> bookingService.create(
+                new BookingCreateRequest(virtual, LocalTime.of(12, 0), 2, "Clash", List.of(101L))));
+        assertThat(ex.getRule()).isEqualTo("cleaner-busy");
+    }
+
+    @Test
+    void rejectsTheWholeSeriesWhenOneOccurrenceConflicts() {
+        seed();
+        bookingService.create(new BookingCreateRequest(MONDAY.plusWeeks(6), LocalTime.of(12, 15), 2, "Existing",
+                List.of(101L)));
+
+        BookingValidationException ex = assertThrows(BookingValidationException.class,
+                () -> bookingService.createSeries(weekly()));
+
+        assertThat(ex.getMessage()).isEqualTo("Cleaner 101 is busy or break too short on " + MONDAY.plusWeeks(6));
+        assertThat(seriesRepository.count()).isZero();
+    }
+
+    @Test
+    void materializationWritesDueOccurrencesAndSkipsTakenOnes() {
+        seed();
+        Cleaner cleaner = em.find(Cleaner.class, 101L);
+        // A series whose window was never written, and a booking that slipped in on its second Monday
+        BookingSeries series = em.persist(BookingSeries.builder()
+                .customer("Weekly")
+                .vehicle(cleaner.getVehicle())
+                .cleaners(new ArrayList<>(List.of(cleaner)))
+                .firstDate(MONDAY)
+                .untilDate(LAST)
+                .startTime(LocalTime.of(10, 0))
+                .durationH(2)
+                .intervalWeeks(1)
+                .daysMask(Recurrence.daysMask(List.of(DayOfWeek.MONDAY)))
+                .materializedThrough(MONDAY.minusDays(1))
+                .build());
+        em.persist(Booking.builder()
+                .startTime(MONDAY.plusWeeks(1).atTime(11, 0))
+                .endTime(MONDAY.plusWeeks(1).atTime(13, 0))
+                .durationH(2)
+                .customer("Racer")
+                .vehicle(cleaner.getVehicle())
+                .cleaners(List.of(cleaner))
+                .build());
+        em.flush();
+        em.clear();
+
+        assertThat(bookingService.seriesDueForMaterialization()).containsExactly(series.getId());
+        List<BookingResponse> written = bookingService.materializeSeries(series.getId());
+        em.flush();
+        em.clear();
+
+        assertThat(written).extracting(b -> b.startTime().toLocalDate())
+                .containsExactly(MONDAY, MONDAY.plusWeeks(2), MONDAY.plusWeeks(3));
+        assertThat(seriesRepository.findById(series.getId()).orElseThrow().getMaterializedThrough())
+                .isEqualTo(LocalDate.now().plusWeeks(4));
+        assertThat(bookingService.seriesDueForMaterialization()).isEmpty();
+        assertThat(bookingService.materializeSeries(series.getId())).isEmpty();
+    }
+
+    private static BookingSeriesRequest weekly() {
+        return new BookingSeriesRequest(MONDAY, LAST, LocalTime.of(10, 0), 2, "Weekly", List.of(101L),
+                List.of(DayOfWeek.MONDAY), 1);
+    }
+
+    private static List<LocalTime> startsOf(DailyAvailability day, Long cleanerId) {
+        return day.slots().stream()
+                .filter(s -> s.cleanerId().equals(cleanerId))
+                .map(AvailabilitySlot::freeStartTimes)
+                .findFirst()
+                .orElse(List.of());
+    }
+
+    // One van of two cleaners
+    private void seed() {
+        Vehicle vehicle = em.persist(Vehicle.builder().id(1L).label("Van 1").build());
+        em.persist(Cleaner.builder().id(101L).name("Cleaner 101").vehicle(vehicle).build());
+        em.persist(Cleaner.builder().id(102L).name("Cleaner 102").vehicle(vehicle).build());
+        em.flush();
+    }
+}
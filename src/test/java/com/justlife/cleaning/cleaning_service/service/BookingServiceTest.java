@@ -1,10 +1,23 @@
 package com.justlife.cleaning.cleaning_service.service;
 
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
 import com.justlife.cleaning.cleaning_service.domain.*;
+import com.justlife.cleaning.cleaning_service.dto.BookingAutoRequest;
+import com.justlife.cleaning.cleaning_service.dto.BookingBatchResponse;
 import com.justlife.cleaning.cleaning_service.dto.BookingCreateRequest;
 import com.justlife.cleaning.cleaning_service.dto.BookingResponse;
+import com.justlife.cleaning.cleaning_service.dto.BookingSeriesRequest;
 import com.justlife.cleaning.cleaning_service.exception.BookingValidationException;
+import com.justlife.cleaning.cleaning_service.outbox.BookingOutbox;
+import com.justlife.cleaning.cleaning_service.region.RegionContext;
 import com.justlife.cleaning.cleaning_service.repository.*;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleBook;
+import com.justlife.cleaning.cleaning_service.rules.BookingRuleProperties;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerDay;
+import com.justlife.cleaning.cleaning_service.schedule.CleanerLockManager;
+import com.justlife.cleaning.cleaning_service.schedule.ScheduleIndex;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +26,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.*;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,14 +39,22 @@ class BookingServiceTest {
 
     @Mock BookingRepository bookingRepo;
     @Mock CleanerRepository cleanerRepo;
+    @Mock VehicleRepository vehicleRepo;
+    @Mock ScheduleIndex scheduleIndex;
+    @Mock CleanerLockManager lockManager;
+    @Mock ReferenceDataCache referenceData;
+    @Mock BookingOutbox outbox;
+    @Mock BookingSeriesRepository seriesRepo;
 
-    @InjectMocks BookingService bookingService;
+    BookingService bookingService;
 
     Cleaner cleaner1;
     Cleaner cleaner2;
 
     @BeforeEach
     void setUp() {
+        bookingService = new BookingService(bookingRepo, cleanerRepo, vehicleRepo, scheduleIndex, lockManager,
+                referenceData, outbox, seriesRepo, BookingRuleBook.DEFAULT);
         Vehicle v1 = Vehicle.builder().id(1L).label("Van-A").build();
         cleaner1 = Cleaner.builder().id(101L).name("Alice").vehicle(v1).build();
         cleaner2 = Cleaner.builder().id(102L).name("Bob").vehicle(v1).build();
@@ -45,8 +69,11 @@ class BookingServiceTest {
                 "John Doe",
                 List.of(101L, 102L)
         );
-        when(cleanerRepo.findAllById(List.of(101L, 102L)))
-                .thenReturn(List.of(cleaner1, cleaner2));
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(referenceData.vehicleIdOf(102L)).thenReturn(1L);
+        when(cleanerRepo.getReferenceById(101L)).thenReturn(cleaner1);
+        when(cleanerRepo.getReferenceById(102L)).thenReturn(cleaner2);
+        when(vehicleRepo.getReferenceById(1L)).thenReturn(cleaner1.getVehicle());
         when(bookingRepo.save(any())).thenAnswer(i -> i.getArgument(0));
 
         var resp = bookingService.create(req);
@@ -55,6 +82,15 @@ class BookingServiceTest {
         assertEquals(LocalTime.of(10,0), resp.startTime().toLocalTime());
 
         verify(bookingRepo).save(any());
+        verify(outbox).created(resp);
+        verify(cleanerRepo, never()).findAllById(any());
+        InOrder inOrder = inOrder(lockManager, bookingRepo);
+        inOrder.verify(lockManager).lockUntilCompletion(List.of(101L, 102L));
+        inOrder.verify(bookingRepo).findBusyCleanerIds(any(), any(), any(), any());
+        verify(scheduleIndex).recordBooking(
+                LocalDateTime.of(2025, 7, 7, 10, 0),
+                LocalDateTime.of(2025, 7, 7, 12, 0),
+                List.of(101L, 102L));
     }
 
     @Test
@@ -70,6 +106,24 @@ class BookingServiceTest {
                 () -> bookingService.create(req));
     }
 
+    @Test
+    void shouldValidateUnderTheRulesOfTheRequestRegion() {
+        BookingRuleProperties.Region gulf = new BookingRuleProperties.Region();
+        gulf.setDaysOff(List.of(DayOfWeek.SUNDAY, DayOfWeek.FRIDAY));
+        BookingRuleProperties properties = new BookingRuleProperties();
+        properties.setRegions(Map.of("gulf", gulf));
+        BookingService regional = new BookingService(bookingRepo, cleanerRepo, vehicleRepo, scheduleIndex,
+                lockManager, referenceData, outbox, seriesRepo, BookingRuleBook.compile(properties));
+        BookingCreateRequest sunday = new BookingCreateRequest(
+                LocalDate.of(2025, 7, 6), LocalTime.of(10, 0), 2, "Test", List.of(101L));
+
+        BookingValidationException ex = assertThrows(BookingValidationException.class,
+                () -> RegionContext.run("gulf", () -> regional.create(sunday)));
+
+        assertEquals("friday-sunday", ex.getRule());
+        verifyNoInteractions(lockManager, bookingRepo);
+    }
+
     @Test
     void shouldRejectBookingOutsideWorkingHours() {
         BookingCreateRequest request = new BookingCreateRequest(
@@ -90,6 +144,22 @@ class BookingServiceTest {
         verifyNoInteractions(cleanerRepo, bookingRepo);
     }
 
+    @Test
+    void shouldTagValidationTimerWithRejectingRule() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            BookingCreateRequest friday = new BookingCreateRequest(
+                    LocalDate.of(2025, 7, 4), LocalTime.of(10, 0), 2, "Test", List.of(101L));
+
+            assertThrows(BookingValidationException.class, () -> bookingService.create(friday));
+
+            assertThat(registry.get("booking.validation").tag("rule", "friday").timer().count()).isEqualTo(1);
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
     @Test
     void shouldRejectBookingWithInvalidDuration() {
         BookingCreateRequest request = new BookingCreateRequest(
@@ -142,11 +212,8 @@ class BookingServiceTest {
                 List.of(1L)
         );
 
-        Vehicle van = Vehicle.builder().id(1L).label("Van-1").build();
-        Cleaner cleaner = Cleaner.builder().id(1L).name("Cleaner1").vehicle(van).build();
-
-        when(cleanerRepo.findAllById(List.of(1L))).thenReturn(List.of(cleaner));
-        when(bookingRepo.hasOverlap(eq(cleaner), any(), any(), eq(null))).thenReturn(true);
+        when(referenceData.vehicleIdOf(1L)).thenReturn(1L);
+        when(bookingRepo.findBusyCleanerIds(eq(List.of(1L)), any(), any(), eq(null))).thenReturn(List.of(1L));
 
         BookingValidationException ex = assertThrows(
                 BookingValidationException.class,
@@ -155,8 +222,119 @@ class BookingServiceTest {
 
         assertThat(ex.getMessage()).isEqualTo("Cleaner 1 is busy or break too short");
 
-        verify(cleanerRepo).findAllById(List.of(1L));
-        verify(bookingRepo).hasOverlap(eq(cleaner), any(), any(), eq(null));
+        verifyNoInteractions(cleanerRepo);
+        verify(bookingRepo).findBusyCleanerIds(eq(List.of(1L)), any(), any(), eq(null));
+    }
+
+    @Test
+    void shouldRejectBookingOverlappingVirtualSeriesOccurrence() {
+        BookingCreateRequest request = new BookingCreateRequest(
+                LocalDate.of(2025, 7, 7), LocalTime.of(10, 0), 2, "Series overlap", List.of(101L));
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        // A weekly series not yet written for this Monday, starting only 15 minutes after the booking ends
+        when(scheduleIndex.virtualWindows(LocalDate.of(2025, 7, 7), LocalDate.of(2025, 7, 7))).thenReturn(List.of(
+                new CleanerBookingWindow(101L, LocalDateTime.of(2025, 7, 7, 12, 15),
+                        LocalDateTime.of(2025, 7, 7, 14, 15))));
+
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingService.create(request)
+        );
+
+        assertThat(ex.getRule()).isEqualTo("cleaner-busy");
+        verify(bookingRepo, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectSeriesNamingFirstConflictingDate() {
+        BookingSeriesRequest request = new BookingSeriesRequest(
+                LocalDate.of(2025, 7, 7), LocalDate.of(2025, 9, 29), LocalTime.of(10, 0), 2, "Weekly",
+                List.of(101L), null, null);
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(bookingRepo.findCleanerWindowsOf(eq(List.of(101L)), any(), any())).thenReturn(List.of(
+                window(101L, LocalDate.of(2025, 8, 4), 9, 0, 1),
+                window(101L, LocalDate.of(2025, 7, 21), 11, 0, 2),
+                window(101L, LocalDate.of(2025, 7, 28), 12, 30, 2)));
+
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingService.createSeries(request)
+        );
+
+        // 28 July starts a full break after the occurrence ends; 4 August ends as it starts
+        assertThat(ex.getMessage()).isEqualTo("Cleaner 101 is busy or break too short on 2025-07-21 and 1 more dates");
+        verify(bookingRepo).findCleanerWindowsOf(eq(List.of(101L)), eq(LocalDateTime.of(2025, 7, 7, 0, 0)),
+                eq(LocalDateTime.of(2025, 9, 30, 0, 0)));
+        verifyNoInteractions(seriesRepo, outbox);
+    }
+
+    @Test
+    void shouldNameEveryBusyCleanerFromOneOverlapQuery() {
+        BookingCreateRequest request = new BookingCreateRequest(
+                LocalDate.of(2025, 7, 7),
+                LocalTime.of(10, 0),
+                2,
+                "Busy team",
+                List.of(101L, 102L)
+        );
+
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(referenceData.vehicleIdOf(102L)).thenReturn(1L);
+        when(bookingRepo.findBusyCleanerIds(eq(List.of(101L, 102L)), any(), any(), eq(null)))
+                .thenReturn(List.of(102L, 101L));
+
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingService.create(request)
+        );
+
+        assertThat(ex.getMessage()).isEqualTo("Cleaners 101, 102 are busy or break too short");
+        verifyNoInteractions(cleanerRepo);
+        verify(bookingRepo, times(1)).findBusyCleanerIds(any(), any(), any(), any());
+        verify(bookingRepo, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectCleanersFromDifferentVehiclesWithoutQuerying() {
+        BookingCreateRequest request = new BookingCreateRequest(
+                LocalDate.of(2025, 7, 7),
+                LocalTime.of(10, 0),
+                2,
+                "Mixed vans",
+                List.of(101L, 201L)
+        );
+
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(referenceData.vehicleIdOf(201L)).thenReturn(2L);
+
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingService.create(request)
+        );
+
+        assertThat(ex.getMessage()).isEqualTo("All cleaners must belong to the same vehicle");
+        verifyNoInteractions(cleanerRepo, bookingRepo, lockManager);
+    }
+
+    @Test
+    void shouldRejectCleanerOffDutyBeforeTakingLocks() {
+        LocalDate monday = LocalDate.of(2025, 7, 7);
+        BookingCreateRequest request = new BookingCreateRequest(
+                monday, LocalTime.of(16, 0), 2, "Late shift", List.of(101L, 102L));
+
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(referenceData.vehicleIdOf(102L)).thenReturn(1L);
+        when(scheduleIndex.offDuty(List.of(101L, 102L), monday.atTime(16, 0), monday.atTime(18, 0)))
+                .thenReturn(List.of(102L));
+
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingService.create(request)
+        );
+
+        assertThat(ex.getRule()).isEqualTo("cleaner-off-duty");
+        assertThat(ex.getMessage()).isEqualTo("Cleaner 102 is not on duty at that time");
+        verifyNoInteractions(bookingRepo, lockManager);
     }
 
     @Test
@@ -172,8 +350,8 @@ class BookingServiceTest {
         Vehicle vehicle = Vehicle.builder().id(1L).label("Van-1").build();
         Cleaner cleaner = Cleaner.builder().id(1L).name("Cleaner1").vehicle(vehicle).build();
 
-        when(cleanerRepo.findAllById(List.of(1L))).thenReturn(List.of(cleaner));
-        when(bookingRepo.hasOverlap(eq(cleaner), any(), any(), eq(null))).thenReturn(false);
+        when(referenceData.vehicleIdOf(1L)).thenReturn(1L);
+        when(bookingRepo.findBusyCleanerIds(eq(List.of(1L)), any(), any(), eq(null))).thenReturn(List.of());
 
         Booking savedBooking = Booking.builder()
                 .id(100L)
@@ -198,13 +376,145 @@ class BookingServiceTest {
         verify(bookingRepo).save(any());
     }
 
+    @Test
+    void shouldCreateBatchCheckingItemsAgainstEachOther() {
+        LocalDate monday = LocalDate.of(2025, 7, 7);
+        List<BookingCreateRequest> requests = List.of(
+                new BookingCreateRequest(monday, LocalTime.of(10, 0), 2, "A", List.of(101L)),
+                new BookingCreateRequest(monday, LocalTime.of(12, 0), 2, "B", List.of(101L)),
+                new BookingCreateRequest(monday, LocalTime.of(8, 0), 2, "C", List.of(102L)),
+                new BookingCreateRequest(LocalDate.of(2025, 7, 11), LocalTime.of(10, 0), 2, "D", List.of(101L))
+        );
+
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(referenceData.vehicleIdOf(102L)).thenReturn(1L);
+        when(cleanerRepo.getReferenceById(101L)).thenReturn(cleaner1);
+        when(vehicleRepo.getReferenceById(1L)).thenReturn(cleaner1.getVehicle());
+        when(bookingRepo.findCleanerWindowsOf(
+                Set.of(101L, 102L), monday.atStartOfDay(), monday.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(new CleanerBookingWindow(102L, monday.atTime(10, 0), monday.atTime(12, 0))));
+
+        BookingBatchResponse resp = bookingService.createBatch(requests);
+
+        assertThat(resp.accepted()).isEqualTo(1);
+        assertThat(resp.rejected()).isEqualTo(3);
+        assertThat(resp.results().get(0).booking().cleanerIds()).containsExactly(101L);
+        assertThat(resp.results().get(1).error()).isEqualTo("Cleaner 101 is busy or break too short");
+        assertThat(resp.results().get(2).error()).isEqualTo("Cleaner 102 is busy or break too short");
+        assertThat(resp.results().get(3).error()).isEqualTo("No bookings allowed on Fridays");
+
+        verify(lockManager).lockUntilCompletion(Set.of(101L, 102L));
+        // Only the batch's cleaners are read, never the whole fleet's calendar
+        verify(bookingRepo, times(1)).findCleanerWindowsOf(any(), any(), any());
+        verify(bookingRepo, never()).findCleanerWindows(any(), any());
+        verify(bookingRepo, never()).findBusyCleanerIds(any(), any(), any(), any());
+        ArgumentCaptor<List<Booking>> saved = ArgumentCaptor.captor();
+        verify(bookingRepo).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Booking::getCustomer).containsExactly("A");
+        verify(scheduleIndex).evict(monday);
+        verify(outbox).createdAll(List.of(resp.results().get(0).booking()));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingService.createBatch(List.of())
+        );
+
+        assertThat(ex.getMessage()).isEqualTo("Batch must contain 1-1000 bookings");
+        verifyNoInteractions(bookingRepo);
+    }
+
+    @Test
+    void shouldAutoAssignTeamFromOneVanAndBookIt() {
+        LocalDate monday = LocalDate.of(2025, 7, 7);
+        BookingAutoRequest request = new BookingAutoRequest(monday, LocalTime.of(12, 0), 2, "Auto", 2);
+
+        when(referenceData.cleanersByVehicle()).thenReturn(Map.of(1L, List.of(101L, 102L, 103L), 2L, List.of(201L)));
+        // 103 is busy at noon and van 2 has a single cleaner
+        when(scheduleIndex.day(monday)).thenReturn(Map.of(103L, CleanerDay.FREE.with(720, 840)));
+        when(bookingRepo.findBusyCleanerIds(eq(List.of(101L, 102L)), any(), any(), eq(null))).thenReturn(List.of());
+        when(cleanerRepo.getReferenceById(101L)).thenReturn(cleaner1);
+        when(cleanerRepo.getReferenceById(102L)).thenReturn(cleaner2);
+        when(vehicleRepo.getReferenceById(1L)).thenReturn(cleaner1.getVehicle());
+        when(bookingRepo.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        BookingResponse resp = bookingService.createAuto(request);
+
+        assertThat(resp.cleanerIds()).containsExactly(101L, 102L);
+        assertThat(resp.vehicleId()).isEqualTo(1L);
+        InOrder inOrder = inOrder(lockManager, bookingRepo);
+        inOrder.verify(lockManager).lockUntilCompletion(List.of(101L, 102L, 103L));
+        inOrder.verify(bookingRepo).findBusyCleanerIds(any(), any(), any(), any());
+        inOrder.verify(bookingRepo).save(any());
+        verify(scheduleIndex).recordBooking(monday.atTime(12, 0), monday.atTime(14, 0), List.of(101L, 102L));
+    }
+
+    @Test
+    void shouldRejectAutoAssignWhenNoVanHasEnoughFreeCleaners() {
+        LocalDate monday = LocalDate.of(2025, 7, 7);
+        BookingAutoRequest request = new BookingAutoRequest(monday, LocalTime.of(12, 0), 2, "Auto", 3);
+
+        when(referenceData.cleanersByVehicle()).thenReturn(Map.of(1L, List.of(101L, 102L)));
+        when(scheduleIndex.day(monday)).thenReturn(Map.of());
+
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingService.createAuto(request)
+        );
+
+        assertThat(ex.getMessage()).isEqualTo("No vehicle has 3 free cleaners at that time");
+        verifyNoInteractions(lockManager, bookingRepo);
+    }
+
     @Test
     void shouldDeleteBookingSuccessfully() {
         Long bookingId = 1L;
+        List<CleanerBookingWindow> windows = List.of(new CleanerBookingWindow(
+                101L, LocalDateTime.of(2025, 7, 7, 10, 0), LocalDateTime.of(2025, 7, 7, 12, 0)));
+        when(bookingRepo.lockActiveIds(List.of(bookingId))).thenReturn(List.of(bookingId));
+        when(bookingRepo.findWindowsOf(List.of(bookingId))).thenReturn(windows);
 
         bookingService.delete(bookingId);
 
-        verify(bookingRepo).deleteById(bookingId);
+        verify(bookingRepo).cancel(eq(List.of(bookingId)), any());
+        verify(bookingRepo, never()).deleteById(any());
+        verify(scheduleIndex).recordCancellation(windows);
+        verify(outbox).cancelled(List.of(bookingId));
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldSkipUnknownOrCancelledBookingOnDelete() {
+        bookingService.delete(99L);
+
+        verify(bookingRepo, never()).cancel(any(), any());
+        verifyNoInteractions(outbox, scheduleIndex);
+    }
+
+    @Test
+    void shouldCancelManyBookingsInOneUpdate() {
+        when(bookingRepo.lockActiveIds(List.of(3L, 1L, 2L, 9L))).thenReturn(List.of(3L, 1L, 2L));
+
+        List<Long> cancelled = bookingService.cancel(List.of(3L, 1L, 2L, 9L));
+
+        assertThat(cancelled).containsExactly(1L, 2L, 3L);
+        verify(bookingRepo, times(1)).cancel(eq(List.of(1L, 2L, 3L)), any());
+        verify(outbox).cancelled(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void shouldNotFindCancelledBooking() {
+        Booking booking = Booking.builder().id(5L).status(BookingStatus.CANCELLED).build();
+        when(bookingRepo.findById(5L)).thenReturn(Optional.of(booking));
+
+        BookingValidationException ex = assertThrows(BookingValidationException.class, () -> bookingService.get(5L));
+
+        assertThat(ex.getRule()).isEqualTo("not-found");
+    }
+
+    private static CleanerBookingWindow window(Long cleanerId, LocalDate date, int hour, int minute, int hours) {
+        LocalDateTime start = date.atTime(hour, minute);
+        return new CleanerBookingWindow(cleanerId, start, start.plusHours(hours));
+    }
+}
@@ -0,0 +1,90 @@
+package com.justlife.cleaning.cleaning_service.service;
+
+import com.justlife.cleaning.cleaning_service.cache.ReferenceDataCache;
+import com.justlife.cleaning.cleaning_service.cache.WorkingCalendarCache;
+import com.justlife.cleaning.cleaning_service.domain.CleanerAbsence;
+import com.justlife.cleaning.cleaning_service.domain.CleanerShift;
+import com.justlife.cleaning.cleaning_service.dto.AbsencePeriod;
+import com.justlife.cleaning.cleaning_service.dto.CleanerRoster;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadRequest;
+import com.justlife.cleaning.cleaning_service.dto.RosterUploadResponse;
+import com.justlife.cleaning.cleaning_service.dto.ShiftPeriod;
+import com.justlife.cleaning.cleaning_service.repository.CleanerAbsenceRepository;
+import com.justlife.cleaning.cleaning_service.repository.CleanerShiftRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RosterServiceTest {
+
+    @Mock CleanerShiftRepository shiftRepo;
+    @Mock CleanerAbsenceRepository absenceRepo;
+    @Mock ReferenceDataCache referenceData;
+    @Mock WorkingCalendarCache calendarCache;
+
+    RosterService rosterService;
+
+    @BeforeEach
+    void setUp() {
+        rosterService = new RosterService(shiftRepo, absenceRepo, referenceData, calendarCache);
+    }
+
+    @Test
+    void shouldReplaceListedCleanersCalendarsAndDropTheCachedOne() {
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(referenceData.vehicleIdOf(102L)).thenReturn(1L);
+        RosterUploadRequest req = new RosterUploadRequest(List.of(
+                new CleanerRoster(101L, List.of(
+                        new ShiftPeriod(DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(14, 0)),
+                        new ShiftPeriod(DayOfWeek.TUESDAY, LocalTime.of(12, 0), LocalTime.of(20, 0))), null),
+                new CleanerRoster(102L, null, List.of(new AbsencePeriod(
+                        LocalDateTime.of(2025, 7, 7, 0, 0), LocalDateTime.of(2025, 7, 12, 0, 0), "Leave")))));
+
+        RosterUploadResponse resp = rosterService.upload(req);
+
+        assertThat(resp).isEqualTo(new RosterUploadResponse(2, 2, 1));
+        InOrder inOrder = inOrder(shiftRepo, absenceRepo, calendarCache);
+        inOrder.verify(shiftRepo).deleteByCleanerIds(Set.of(101L, 102L));
+        inOrder.verify(absenceRepo).deleteByCleanerIds(Set.of(101L, 102L));
+        ArgumentCaptor<List<CleanerShift>> shifts = ArgumentCaptor.captor();
+        inOrder.verify(shiftRepo).saveAll(shifts.capture());
+        ArgumentCaptor<List<CleanerAbsence>> absences = ArgumentCaptor.captor();
+        inOrder.verify(absenceRepo).saveAll(absences.capture());
+        inOrder.verify(calendarCache).invalidate();
+        assertThat(shifts.getValue()).extracting(CleanerShift::getDayOfWeek)
+                .containsExactly(DayOfWeek.MONDAY, DayOfWeek.TUESDAY);
+        assertThat(absences.getValue()).extracting(CleanerAbsence::getCleanerId).containsExactly(102L);
+    }
+
+    @Test
+    void shouldRejectWholeUploadBeforeWritingAnything() {
+        when(referenceData.vehicleIdOf(101L)).thenReturn(1L);
+        when(referenceData.vehicleIdOf(999L)).thenReturn(null);
+        RosterUploadRequest offGrid = new RosterUploadRequest(List.of(new CleanerRoster(101L,
+                List.of(new ShiftPeriod(DayOfWeek.MONDAY, LocalTime.of(8, 15), LocalTime.of(14, 0))), null)));
+        RosterUploadRequest unknown = new RosterUploadRequest(List.of(new CleanerRoster(999L, null, null)));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> rosterService.upload(offGrid));
+        assertThat(ex.getMessage())
+                .isEqualTo("Shift of cleaner 101 needs a day and a start before its end, on the half-hour grid");
+        assertThat(assertThrows(IllegalArgumentException.class, () -> rosterService.upload(unknown)).getMessage())
+                .isEqualTo("Unknown cleaner 999");
+        verifyNoInteractions(shiftRepo, absenceRepo, calendarCache);
+    }
+}